@@ -0,0 +1,41 @@
+import io.papermc.paperweight.attribute.DevBundleOutput
+
+plugins {
+  `base-conventions`
+  alias(libs.plugins.jmh)
+}
+
+repositories {
+  maven("https://repo.papermc.io/repository/maven-public/")
+}
+
+val devBundle: Configuration by configurations.creating {
+  attributes {
+    attribute(DevBundleOutput.ATTRIBUTE, objects.named(DevBundleOutput.ZIP))
+  }
+}
+
+dependencies {
+  jmh(projects.reflectionRemapper)
+  devBundle(libs.mappingsTestDevBundle)
+}
+
+val mappingsDir = layout.buildDirectory.dir("benchmark_mappings")
+val extractMappings = tasks.register<ExtractMappings>("extractMappings") {
+  devBundleZip.set(layout.file(devBundle.elements.map { it.single().asFile }))
+  out.set(mappingsDir.map { it.file("mappings.tiny") })
+}
+
+sourceSets.named("jmh") {
+  resources.srcDir(mappingsDir)
+}
+
+tasks.named("processJmhResources") {
+  dependsOn(extractMappings)
+}
+
+jmh {
+  jmhVersion = libs.versions.jmh
+  // Report allocation rates alongside timings, see -prof gc
+  profilers.add("gc")
+}
@@ -0,0 +1,92 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+final class BenchmarkMappings {
+  static final String TARGET_CLASS = "benchmark.Target";
+  static final String TARGET_FIELD = "value";
+  static final String TARGET_METHOD = "add";
+
+  private BenchmarkMappings() {
+  }
+
+  /**
+   * Reads the Paper reobf mappings extracted from the dev bundle.
+   *
+   * @return mappings bytes
+   */
+  static byte[] paperReobfMappings() {
+    try (final InputStream stream = BenchmarkMappings.class.getClassLoader().getResourceAsStream("mappings.tiny")) {
+      if (stream == null) {
+        throw new IllegalStateException("mappings.tiny not found");
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    } catch (final IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Appends a mapping for {@code runtimeClass} to the given tiny v2 mappings, so that lookups
+   * against a loaded {@link Class} can hit while the rest of the tables are realistically sized.
+   *
+   * <p>The class is mapped from {@link #TARGET_CLASS}, with a field {@link #TARGET_FIELD} of type
+   * {@code int} and a method {@link #TARGET_METHOD} with descriptor {@code (I)I}.</p>
+   *
+   * @param mappings     tiny v2 mappings
+   * @param runtimeClass class to map to
+   * @return mappings bytes
+   */
+  static byte[] withTargetClass(final byte[] mappings, final Class<?> runtimeClass) {
+    final String contents = new String(mappings, StandardCharsets.UTF_8);
+    final String[] header = contents.substring(0, contents.indexOf('\n')).trim().split("\t");
+    final List<String> namespaces = Arrays.asList(header).subList(3, header.length);
+
+    final Function<String[], String> names = pair -> {
+      final StringBuilder builder = new StringBuilder();
+      for (final String namespace : namespaces) {
+        builder.append('\t').append(namespace.equals("spigot") ? pair[1] : pair[0]);
+      }
+      return builder.toString();
+    };
+
+    final StringBuilder builder = new StringBuilder(contents);
+    if (contents.charAt(contents.length() - 1) != '\n') {
+      builder.append('\n');
+    }
+    builder.append('c').append(names.apply(new String[]{TARGET_CLASS.replace('.', '/'), runtimeClass.getName().replace('.', '/')})).append('\n');
+    builder.append("\tf\tI").append(names.apply(new String[]{TARGET_FIELD, "a"})).append('\n');
+    builder.append("\tm\t(I)I").append(names.apply(new String[]{TARGET_METHOD, "b"})).append('\n');
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.jpenilla.reflectionremapper.ReflectionRemapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MappingsLoadBenchmark {
+  private byte[] mappings;
+  private Path mappingsFile;
+
+  @Setup
+  public void setup() throws IOException {
+    this.mappings = BenchmarkMappings.paperReobfMappings();
+    this.mappingsFile = Files.createTempFile("reflection-remapper-benchmark", ".tiny");
+    Files.write(this.mappingsFile, this.mappings);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.mappingsFile);
+  }
+
+  @Benchmark
+  public ReflectionRemapper forPaperReobfMappingsPath() {
+    return ReflectionRemapper.forPaperReobfMappings(this.mappingsFile);
+  }
+
+  @Benchmark
+  public ReflectionRemapper forPaperReobfMappingsInputStream() {
+    return ReflectionRemapper.forPaperReobfMappings(new ByteArrayInputStream(this.mappings));
+  }
+}
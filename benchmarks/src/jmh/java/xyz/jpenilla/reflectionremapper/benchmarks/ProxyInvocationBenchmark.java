@@ -0,0 +1,248 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.jpenilla.reflectionremapper.ReflectionRemapper;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyBinder;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactory;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyMetrics;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.BatchInvoker;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldGetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSnapshot;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.MethodName;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Static;
+
+/**
+ * Compares calls through a reflection proxy with direct calls, {@link Method#invoke(Object, Object...)}
+ * and a constant {@link MethodHandle}.
+ *
+ * <p>Run with the {@code gc} profiler (enabled by default in this project) to compare allocation rates.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyInvocationBenchmark {
+  private static final int BATCH_SIZE = 1000;
+  private static final Method ADD_METHOD;
+  private static final MethodHandle ADD_HANDLE;
+  private static final TargetProxy PROXY;
+  private static final TargetProxy INSTRUMENTED_PROXY;
+  private static final MethodHandle PROXY_ADD_HANDLE;
+  private static final ReflectionProxyBinder<BoundTargetProxy> BINDER;
+
+  static {
+    try {
+      ADD_METHOD = Target.class.getDeclaredMethod("add", int.class);
+      ADD_METHOD.setAccessible(true);
+      ADD_HANDLE = MethodHandles.lookup().unreflect(ADD_METHOD);
+    } catch (final ReflectiveOperationException ex) {
+      throw new ExceptionInInitializerError(ex);
+    }
+    final ReflectionProxyFactory factory = ReflectionProxyFactory.create(ReflectionRemapper.noop(), ProxyInvocationBenchmark.class.getClassLoader());
+    PROXY = factory.reflectionProxy(TargetProxy.class);
+    INSTRUMENTED_PROXY = factory.withMetrics(ReflectionProxyMetrics.create()).reflectionProxy(TargetProxy.class);
+    PROXY_ADD_HANDLE = factory.methodHandle(TargetProxy.class, "add", Target.class, int.class);
+    BINDER = factory.reflectionProxyBinder(BoundTargetProxy.class);
+  }
+
+  private Target target;
+  private int argument;
+  private final int[] snapshot = new int[3];
+  private final Target[] batch = new Target[BATCH_SIZE];
+  private final int[] batchResults = new int[BATCH_SIZE];
+  private BoundTargetProxy boundProxy;
+
+  @Setup
+  public void setup() {
+    this.target = new Target();
+    this.argument = 42;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      this.batch[i] = new Target();
+    }
+    this.boundProxy = BINDER.bind(this.target);
+  }
+
+  @Benchmark
+  public int direct() {
+    return this.target.add(this.argument);
+  }
+
+  @Benchmark
+  public int methodInvoke() throws ReflectiveOperationException {
+    return (int) ADD_METHOD.invoke(this.target, this.argument);
+  }
+
+  @Benchmark
+  public int methodHandle() throws Throwable {
+    return (int) ADD_HANDLE.invokeExact(this.target, this.argument);
+  }
+
+  @Benchmark
+  public int proxyMethod() {
+    return PROXY.add(this.target, this.argument);
+  }
+
+  @Benchmark
+  public int proxyMethodHandle() throws Throwable {
+    return (int) PROXY_ADD_HANDLE.invokeExact(this.target, this.argument);
+  }
+
+  @Benchmark
+  public int proxyMethodInstrumented() {
+    return INSTRUMENTED_PROXY.add(this.target, this.argument);
+  }
+
+  @Benchmark
+  public int proxyStaticMethod() {
+    return PROXY.twice(this.argument);
+  }
+
+  @Benchmark
+  public int proxyFieldGetter() {
+    return PROXY.value(this.target);
+  }
+
+  @Benchmark
+  public void proxyFieldSetter() {
+    PROXY.value(this.target, this.argument);
+  }
+
+  @Benchmark
+  public int proxyFieldGetters() {
+    return PROXY.value(this.target) + PROXY.second(this.target) + PROXY.third(this.target);
+  }
+
+  @Benchmark
+  public int proxyFieldSnapshot() {
+    PROXY.values(this.target, this.snapshot);
+    return this.snapshot[0] + this.snapshot[1] + this.snapshot[2];
+  }
+
+  @Benchmark
+  public int[] proxyMethodLoop() {
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      this.batchResults[i] = PROXY.add(this.batch[i], this.argument);
+    }
+    return this.batchResults;
+  }
+
+  @Benchmark
+  public int[] proxyBatchInvoker() {
+    PROXY.addAll(this.batch, this.argument, this.batchResults);
+    return this.batchResults;
+  }
+
+  @Benchmark
+  public int proxyBoundMethod() {
+    return this.boundProxy.add(this.argument);
+  }
+
+  @Benchmark
+  public int proxyBind() {
+    return BINDER.bind(this.target).add(this.argument);
+  }
+
+  @Benchmark
+  public int proxyDefaultMethod() {
+    return PROXY.addTwice(this.target, this.argument);
+  }
+
+  @Benchmark
+  public int proxyTrivialDefaultMethod() {
+    return PROXY.identity(this.argument);
+  }
+
+  public static final class Target {
+    private int value = 7;
+    private int second = 8;
+    private int third = 9;
+
+    int add(final int amount) {
+      return this.value + amount;
+    }
+
+    static int twice(final int amount) {
+      return amount * 2;
+    }
+  }
+
+  @Proxies(Target.class)
+  public interface TargetProxy {
+    int add(Target instance, int amount);
+
+    @Static
+    int twice(int amount);
+
+    @FieldGetter("value")
+    int value(Target instance);
+
+    @FieldSetter("value")
+    void value(Target instance, int value);
+
+    @FieldGetter("second")
+    int second(Target instance);
+
+    @FieldGetter("third")
+    int third(Target instance);
+
+    @FieldSnapshot({"value", "second", "third"})
+    void values(Target instance, int[] out);
+
+    @BatchInvoker(output = true)
+    @MethodName("add")
+    void addAll(Target[] instances, int amount, int[] out);
+
+    default int addTwice(final Target instance, final int amount) {
+      return this.add(instance, this.add(instance, amount));
+    }
+
+    default int identity(final int value) {
+      return value;
+    }
+  }
+
+  @Proxies(Target.class)
+  public interface BoundTargetProxy {
+    int add(int amount);
+
+    @FieldGetter("value")
+    int value();
+
+    @FieldSetter("value")
+    void value(int value);
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.jpenilla.reflectionremapper.ReflectionRemapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemapBenchmark {
+  private ReflectionRemapper remapper;
+  private String mappedClassName;
+  private String unmappedClassName;
+
+  @Setup
+  public void setup() {
+    final byte[] mappings = BenchmarkMappings.withTargetClass(BenchmarkMappings.paperReobfMappings(), Target.class);
+    this.remapper = ReflectionRemapper.forPaperReobfMappings(new ByteArrayInputStream(mappings));
+    this.mappedClassName = "net.minecraft.server.level.ServerPlayer";
+    this.unmappedClassName = "java.lang.String";
+    if (!this.remapper.remapClassName(BenchmarkMappings.TARGET_CLASS).equals(Target.class.getName())) {
+      throw new IllegalStateException("Benchmark target class was not mapped");
+    }
+  }
+
+  @Benchmark
+  public String remapClassName() {
+    return this.remapper.remapClassName(this.mappedClassName);
+  }
+
+  @Benchmark
+  public String remapClassNameUnmapped() {
+    return this.remapper.remapClassName(this.unmappedClassName);
+  }
+
+  @Benchmark
+  public String remapFieldName() {
+    return this.remapper.remapFieldName(Target.class, BenchmarkMappings.TARGET_FIELD);
+  }
+
+  @Benchmark
+  public String remapMethodName() {
+    return this.remapper.remapMethodName(Target.class, BenchmarkMappings.TARGET_METHOD, int.class);
+  }
+
+  public static final class Target {
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.jpenilla.reflectionremapper.MultiNamespaceMappings;
+import xyz.jpenilla.reflectionremapper.TextDeobfuscator;
+
+/**
+ * Deobfuscates a log of about 1 MiB, half plain log lines and half stack trace frames of
+ * mapped classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextDeobfuscatorBenchmark {
+  private static final String MOJANG = "mojang+yarn";
+  private static final String SPIGOT = "spigot";
+  private static final int LOG_CHARS = 1 << 20;
+  private static final String NAMED_LINES =
+    "[12:00:00 INFO]: Preparing spawn area: 42%\n"
+      + "\tat net.minecraft.server.level.ServerPlayer.tick(ServerPlayer.java:812) ~[paper.jar:?]\n"
+      + "[12:00:01 WARN]: Can't keep up! Is the server overloaded? Running 2041ms or 40 ticks behind\n"
+      + "\tat net.minecraft.server.level.ServerLevel.tickNonPassenger(ServerLevel.java:1290) ~[paper.jar:?]\n";
+
+  private TextDeobfuscator deobfuscator;
+  private String log;
+
+  @Setup
+  public void setup() {
+    final MultiNamespaceMappings mappings = MultiNamespaceMappings.load(new ByteArrayInputStream(BenchmarkMappings.paperReobfMappings()));
+    this.deobfuscator = mappings.deobfuscator(SPIGOT, MOJANG);
+
+    final StringBuilder named = new StringBuilder(LOG_CHARS + NAMED_LINES.length());
+    while (named.length() < LOG_CHARS) {
+      named.append(NAMED_LINES);
+    }
+    this.log = mappings.deobfuscator(MOJANG, SPIGOT).deobfuscate(named);
+  }
+
+  @Benchmark
+  public String deobfuscateString() {
+    return this.deobfuscator.deobfuscate(this.log);
+  }
+
+  @Benchmark
+  public StringWriter deobfuscateReader() throws IOException {
+    final StringWriter out = new StringWriter(this.log.length());
+    this.deobfuscator.deobfuscate(new StringReader(this.log), out);
+    return out;
+  }
+}
@@ -11,6 +11,13 @@ repositories {
   maven("https://repo.papermc.io/repository/maven-public/")
 }
 
+sourceSets.main {
+  multirelease {
+    // Java Flight Recorder events, see xyz.jpenilla.reflectionremapper.internal.jfr.Events
+    alternateVersions(11)
+  }
+}
+
 dependencies {
   compileOnlyApi(libs.checker.qual)
   implementation(libs.mapping.io)
@@ -34,6 +34,9 @@ tasks {
         jvmArgs("-javaagent:${memoryMeasurer.asFileTree.singleFile.path}")
       }
     }
+    providers.systemProperty("reflectionremapper.scaling.classes").orNull?.let {
+      systemProperty("reflectionremapper.scaling.classes", it)
+    }
     dependsOn(extractMappings)
   }
 }
@@ -3,3 +3,4 @@ enableFeaturePreview("TYPESAFE_PROJECT_ACCESSORS")
 rootProject.name = "reflection-remapper"
 
 include(":test-plugin")
+include(":benchmarks")
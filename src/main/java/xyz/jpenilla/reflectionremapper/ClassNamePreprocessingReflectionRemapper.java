@@ -17,14 +17,19 @@
  */
 package xyz.jpenilla.reflectionremapper;
 
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
+import xyz.jpenilla.reflectionremapper.internal.util.ClockCache;
 
 @DefaultQualifier(NonNull.class)
 final class ClassNamePreprocessingReflectionRemapper implements ReflectionRemapper {
+  private static final int MAX_CACHED_NAMES = 4096;
   private final ReflectionRemapper delegate;
   private final UnaryOperator<String> processor;
+  private final ClockCache<String, String> cache = new ClockCache<>(MAX_CACHED_NAMES); // evicts names not used recently
 
   ClassNamePreprocessingReflectionRemapper(
     final ReflectionRemapper delegate,
@@ -36,7 +41,13 @@ final class ClassNamePreprocessingReflectionRemapper implements ReflectionRemapp
 
   @Override
   public String remapClassName(final String className) {
-    return this.delegate.remapClassName(this.processor.apply(className));
+    final @Nullable String cached = this.cache.get(className);
+    if (cached != null) {
+      return cached;
+    }
+    final String remapped = this.delegate.remapClassName(this.processor.apply(className));
+    this.cache.put(className, remapped);
+    return remapped;
   }
 
   @Override
@@ -48,4 +59,14 @@ final class ClassNamePreprocessingReflectionRemapper implements ReflectionRemapp
   public String remapMethodName(final Class<?> holdingClass, final String methodName, final Class<?>... paramTypes) {
     return this.delegate.remapMethodName(holdingClass, methodName, paramTypes);
   }
+
+  @Override
+  public ReflectionRemapper retain(final Predicate<String> classFilter) {
+    return new ClassNamePreprocessingReflectionRemapper(this.delegate.retain(classFilter), this.processor);
+  }
+
+  @Override
+  public ReflectionRemapperStats stats() {
+    return this.delegate.stats();
+  }
 }
@@ -0,0 +1,65 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Built-in class name preprocessors for {@link ReflectionRemapper#withClassNamePreprocessor(UnaryOperator)}.
+ */
+@DefaultQualifier(NonNull.class)
+public final class ClassNamePreprocessors {
+  private ClassNamePreprocessors() {
+  }
+
+  /**
+   * Creates a preprocessor that rewrites class name prefixes, i.e. to undo relocation.
+   *
+   * <p>The longest matching prefix is rewritten. Names without a matching prefix are returned
+   * as-is, without allocating. For example, when {@code net.minecraft} is relocated in a shaded jar:</p>
+   * <pre>{@code
+   * remapper.withClassNamePreprocessor(ClassNamePreprocessors.prefixRewrite(
+   *   Collections.singletonMap("my.plugin.libs.nm.", "net.minecraft.")
+   * ));
+   * }</pre>
+   *
+   * @param rewrites map of prefixes to their replacements
+   * @return prefix rewriting preprocessor
+   */
+  public static UnaryOperator<String> prefixRewrite(final Map<String, String> rewrites) {
+    final String[] prefixes = rewrites.keySet().stream()
+      .sorted(Comparator.comparingInt(String::length).reversed())
+      .toArray(String[]::new);
+    final String[] replacements = new String[prefixes.length];
+    for (int i = 0; i < prefixes.length; i++) {
+      replacements[i] = rewrites.get(prefixes[i]);
+    }
+    return name -> {
+      for (int i = 0; i < prefixes.length; i++) {
+        if (name.startsWith(prefixes[i])) {
+          return replacements[i].concat(name.substring(prefixes[i].length()));
+        }
+      }
+      return name;
+    };
+  }
+}
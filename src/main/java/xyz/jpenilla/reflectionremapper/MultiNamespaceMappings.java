@@ -0,0 +1,331 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.tree.MappingTree;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import xyz.jpenilla.reflectionremapper.internal.util.StringPool;
+
+import static xyz.jpenilla.reflectionremapper.ReflectionRemapperImpl.paramsDescFromMethodDesc;
+import static xyz.jpenilla.reflectionremapper.ReflectionRemapperImpl.paramsDescriptor;
+
+/**
+ * Mappings holding every namespace of a mappings file, from which {@link ReflectionRemapper}s
+ * for any pair of namespaces can be created without reading the file again.
+ *
+ * <p>Names of all namespaces are stored once, in shared string storage. The remappers returned by
+ * {@link #remapper(String, String)} are lightweight views over these mappings, and keep them
+ * reachable. Member lookups scan the members of their class rather than indexing them per
+ * namespace pair, trading some lookup speed for memory.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class MultiNamespaceMappings {
+  private static final Member[] NO_MEMBERS = new Member[0];
+  private static final String[] NO_DESCRIPTORS = new String[0];
+
+  private final List<String> namespaces;
+  private final Map<String, ClassEntry>[] classesByName; // per namespace
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private MultiNamespaceMappings(final List<String> namespaces, final Collection<ClassEntry> classes) {
+    this.namespaces = Collections.unmodifiableList(namespaces);
+    this.classesByName = new Map[namespaces.size()];
+    for (int i = 0; i < namespaces.size(); i++) {
+      final Map<String, ClassEntry> byName = new HashMap<>();
+      for (final ClassEntry cls : classes) {
+        byName.put(cls.names[i], cls);
+      }
+      this.classesByName[i] = byName;
+    }
+  }
+
+  /**
+   * Returns the namespaces of these mappings, starting with the source namespace.
+   *
+   * @return namespaces
+   */
+  public List<String> namespaces() {
+    return this.namespaces;
+  }
+
+  /**
+   * Returns a {@link ReflectionRemapper} remapping names from one namespace to another.
+   *
+   * <p>The returned remapper is a view over these mappings, and does not copy them.</p>
+   *
+   * @param fromNamespace from namespace
+   * @param toNamespace   to namespace, the runtime namespace
+   * @return reflection remapper
+   * @throws IllegalArgumentException when either namespace is not present
+   */
+  public ReflectionRemapper remapper(final String fromNamespace, final String toNamespace) {
+    return new View(this.namespace(fromNamespace), this.namespace(toNamespace));
+  }
+
+  /**
+   * Returns a {@link TextDeobfuscator} rewriting names of one namespace in text, i.e. stack traces
+   * or logs, to another.
+   *
+   * <p>Unlike the views returned by {@link #remapper(String, String)}, the deobfuscator indexes the
+   * names it needs up front.</p>
+   *
+   * @param obfuscatedNamespace namespace of names in the text, the runtime namespace
+   * @param namedNamespace      namespace to rewrite names to
+   * @return text deobfuscator
+   * @throws IllegalArgumentException when either namespace is not present
+   */
+  public TextDeobfuscator deobfuscator(final String obfuscatedNamespace, final String namedNamespace) {
+    final int from = this.namespace(obfuscatedNamespace);
+    final int to = this.namespace(namedNamespace);
+    final Map<String, TextDeobfuscator.ClassNames> classes = new HashMap<>();
+    for (final ClassEntry cls : this.classesByName[from].values()) {
+      final Map<String, String> members = deobfuscatedMembers(cls, from, to);
+      if (cls.names[from].equals(cls.names[to]) && members.isEmpty()) {
+        continue;
+      }
+      classes.put(cls.names[from], new TextDeobfuscator.ClassNames(cls.names[to], members));
+      classes.put(
+        cls.names[from].replace('.', '/'),
+        new TextDeobfuscator.ClassNames(cls.names[to].replace('.', '/'), members)
+      );
+    }
+    return new TextDeobfuscator(classes);
+  }
+
+  private static Map<String, String> deobfuscatedMembers(final ClassEntry cls, final int from, final int to) {
+    final Map<String, @Nullable String> members = new HashMap<>();
+    for (final Member[] group : new Member[][]{cls.fields, cls.methods}) {
+      for (final Member member : group) {
+        final String obfuscated = member.names[from];
+        final String named = member.names[to];
+        if (members.containsKey(obfuscated) && !named.equals(members.get(obfuscated))) {
+          members.put(obfuscated, null); // ambiguous without a descriptor
+        } else {
+          members.put(obfuscated, named);
+        }
+      }
+    }
+    final Map<String, String> result = new HashMap<>();
+    members.forEach((obfuscated, named) -> {
+      if (named != null && !named.equals(obfuscated)) {
+        result.put(obfuscated, named);
+      }
+    });
+    return result.isEmpty() ? Collections.emptyMap() : result;
+  }
+
+  private int namespace(final String namespace) {
+    final int index = this.namespaces.indexOf(namespace);
+    if (index == -1) {
+      throw new IllegalArgumentException("Unknown namespace '" + namespace + "', expected one of " + this.namespaces);
+    }
+    return index;
+  }
+
+  /**
+   * Loads all namespaces of the given mappings.
+   *
+   * <p>Note that this does not close the provided {@link InputStream}.</p>
+   *
+   * @param mappings mappings
+   * @return multi-namespace mappings
+   */
+  public static MultiNamespaceMappings load(final InputStream mappings) {
+    final MemoryMappingTree tree = new MemoryMappingTree(true);
+    try {
+      MappingReader.read(new InputStreamReader(mappings, StandardCharsets.UTF_8), tree);
+    } catch (final IOException ex) {
+      throw new RuntimeException("Failed to read mappings.", ex);
+    }
+    return fromMappingTree(tree);
+  }
+
+  /**
+   * Loads all namespaces of the given mappings.
+   *
+   * @param mappings mappings
+   * @return multi-namespace mappings
+   */
+  public static MultiNamespaceMappings load(final Path mappings) {
+    try (final InputStream stream = Files.newInputStream(mappings)) {
+      return load(stream);
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static MultiNamespaceMappings fromMappingTree(final MappingTree tree) {
+    final List<String> namespaces = new ArrayList<>();
+    namespaces.add(tree.getSrcNamespace());
+    namespaces.addAll(tree.getDstNamespaces());
+    final int count = namespaces.size();
+    final StringPool pool = new StringPool();
+
+    final List<ClassEntry> classes = new ArrayList<>();
+    for (final MappingTree.ClassMapping cls : tree.getClasses()) {
+      final String[] names = new String[count];
+      for (int i = 0; i < count; i++) {
+        names[i] = pool.string(name(cls, i).replace('/', '.'));
+      }
+
+      final List<Member> fields = new ArrayList<>();
+      for (final MappingTree.FieldMapping field : cls.getFields()) {
+        final String[] fieldNames = new String[count];
+        for (int i = 0; i < count; i++) {
+          fieldNames[i] = pool.string(name(field, i));
+        }
+        fields.add(new Member(fieldNames, NO_DESCRIPTORS));
+      }
+
+      final List<Member> methods = new ArrayList<>();
+      for (final MappingTree.MethodMapping method : cls.getMethods()) {
+        final String[] methodNames = new String[count];
+        final String[] paramDescs = new String[count];
+        for (int i = 0; i < count; i++) {
+          methodNames[i] = pool.string(name(method, i));
+          final @Nullable String desc = method.getDesc(i - 1);
+          paramDescs[i] = pool.string(paramsDescFromMethodDesc(desc == null ? method.getSrcDesc() : desc));
+        }
+        methods.add(new Member(methodNames, paramDescs));
+      }
+
+      classes.add(new ClassEntry(names, fields.toArray(NO_MEMBERS), methods.toArray(NO_MEMBERS)));
+    }
+    return new MultiNamespaceMappings(namespaces, classes);
+  }
+
+  // mapping-io namespace ids start at -1 for the source namespace
+  private static String name(final MappingTree.ElementMapping element, final int namespace) {
+    final @Nullable String name = element.getName(namespace - 1);
+    return name == null ? element.getSrcName() : name;
+  }
+
+  private final class View implements ReflectionRemapper {
+    private final int from;
+    private final int to;
+
+    View(final int from, final int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public String remapClassName(final String className) {
+      final @Nullable ClassEntry cls = MultiNamespaceMappings.this.classesByName[this.from].get(className);
+      return cls == null ? className : cls.names[this.to];
+    }
+
+    @Override
+    public String remapFieldName(final Class<?> holdingClass, final String fieldName) {
+      final @Nullable ClassEntry cls = MultiNamespaceMappings.this.classesByName[this.to].get(holdingClass.getName());
+      if (cls == null) {
+        return fieldName;
+      }
+      for (final Member field : cls.fields) {
+        if (field.names[this.from].equals(fieldName)) {
+          return field.names[this.to];
+        }
+      }
+      return fieldName;
+    }
+
+    @Override
+    public String remapMethodName(final Class<?> holdingClass, final String methodName, final Class<?>... paramTypes) {
+      final @Nullable ClassEntry cls = MultiNamespaceMappings.this.classesByName[this.to].get(holdingClass.getName());
+      if (cls == null) {
+        return methodName;
+      }
+      @Nullable String paramsDescriptor = null;
+      for (final Member method : cls.methods) {
+        if (method.names[this.from].equals(methodName)) {
+          if (paramsDescriptor == null) {
+            paramsDescriptor = paramsDescriptor(paramTypes);
+          }
+          if (method.paramDescs[this.to].equals(paramsDescriptor)) {
+            return method.names[this.to];
+          }
+        }
+      }
+      return methodName;
+    }
+
+    @Override
+    public ReflectionRemapper retain(final Predicate<String> classFilter) {
+      final List<ReflectionRemapperImpl.ClassMapping> retained = new ArrayList<>();
+      for (final ClassEntry cls : MultiNamespaceMappings.this.classesByName[this.from].values()) {
+        if (!classFilter.test(cls.names[this.from])) {
+          continue;
+        }
+        final Map<String, String> fields = new HashMap<>();
+        for (final Member field : cls.fields) {
+          fields.put(field.names[this.from], field.names[this.to]);
+        }
+        final Map<String, String> methods = new HashMap<>();
+        for (final Member method : cls.methods) {
+          methods.put(method.names[this.from] + method.paramDescs[this.to], method.names[this.to]);
+        }
+        retained.add(new ReflectionRemapperImpl.ClassMapping(
+          cls.names[this.to],
+          cls.names[this.from],
+          Collections.unmodifiableMap(fields),
+          Collections.unmodifiableMap(methods)
+        ));
+      }
+      return ReflectionRemapperImpl.retained(retained);
+    }
+  }
+
+  private static final class ClassEntry {
+    private final String[] names; // per namespace
+    private final Member[] fields;
+    private final Member[] methods;
+
+    ClassEntry(final String[] names, final Member[] fields, final Member[] methods) {
+      this.names = names;
+      this.fields = fields;
+      this.methods = methods;
+    }
+  }
+
+  private static final class Member {
+    private final String[] names; // per namespace
+    private final String[] paramDescs; // per namespace, empty for fields
+
+    Member(final String[] names, final String[] paramDescs) {
+      this.names = names;
+      this.paramDescs = paramDescs;
+    }
+  }
+}
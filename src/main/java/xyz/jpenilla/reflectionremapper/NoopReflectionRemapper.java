@@ -46,4 +46,9 @@ final class NoopReflectionRemapper implements ReflectionRemapper {
   public String remapClassOrArrayName(final String name) {
     return name;
   }
+
+  @Override
+  public String remapDescriptor(final String descriptor) {
+    return descriptor;
+  }
 }
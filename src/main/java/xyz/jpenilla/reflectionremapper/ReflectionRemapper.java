@@ -28,12 +28,18 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import net.fabricmc.mappingio.MappingReader;
 import net.fabricmc.mappingio.tree.MemoryMappingTree;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
+import xyz.jpenilla.reflectionremapper.internal.jfr.Events;
+import xyz.jpenilla.reflectionremapper.internal.util.TimedReader;
 
 import static xyz.jpenilla.reflectionremapper.internal.util.Util.firstLine;
 import static xyz.jpenilla.reflectionremapper.internal.util.Util.mojangMapped;
@@ -111,11 +117,41 @@ public interface ReflectionRemapper {
     return this.remapClassName(name);
   }
 
+  /**
+   * Remaps the classes referenced by a Mojang-mapped JVM method or field descriptor, i.e.
+   * {@code (Lnet/minecraft/core/BlockPos;I)V}, using {@link #remapClassName(String)}.
+   *
+   * @param descriptor descriptor
+   * @return remapped descriptor
+   */
+  default String remapDescriptor(final String descriptor) {
+    Objects.requireNonNull(descriptor, "descriptor");
+    final StringBuilder builder = new StringBuilder(descriptor.length());
+    int i = 0;
+    while (i < descriptor.length()) {
+      final char c = descriptor.charAt(i);
+      final int end = c == 'L' ? descriptor.indexOf(';', i) : -1;
+      if (end == -1) {
+        builder.append(c);
+        i++;
+        continue;
+      }
+      final String cls = descriptor.substring(i + 1, end).replace('/', '.');
+      builder.append('L').append(this.remapClassName(cls).replace('.', '/')).append(';');
+      i = end + 1;
+    }
+    return builder.toString();
+  }
+
   /**
    * Creates a new reflection remapper that processes class names using the provided
    * operator before remapping them with this remapper.
    *
-   * <p>This may be useful when class names must be mangled to avoid relocation.</p>
+   * <p>This may be useful when class names must be mangled to avoid relocation, see
+   * {@link ClassNamePreprocessors#prefixRewrite(java.util.Map)}.</p>
+   *
+   * <p>The preprocessor must be a pure function of the class name, as remapped class names
+   * are memoized.</p>
    *
    * @param preprocessor class name preprocessor
    * @return delegating reflection remapper
@@ -124,6 +160,38 @@ public interface ReflectionRemapper {
     return new ClassNamePreprocessingReflectionRemapper(this, preprocessor);
   }
 
+  /**
+   * Creates a new remapper holding only the mappings for classes whose Mojang-mapped name is
+   * accepted by the given filter. Lookups for any other class are passed through unchanged.
+   *
+   * <p>The returned remapper does not reference this remapper, so it may be kept for remapping
+   * after startup, i.e. for dynamically loaded code, while the full mappings are garbage collected.
+   * For example, to retain a package:</p>
+   * <pre>{@code
+   * remapper.retain(name -> name.startsWith("net.minecraft.server.level."));
+   * }</pre>
+   *
+   * <p>Remappers which do not hold any mappings, such as {@link #noop()}, return themselves.</p>
+   *
+   * @param classFilter filter for fully qualified, Mojang-mapped class names
+   * @return reflection remapper retaining the accepted classes
+   */
+  default ReflectionRemapper retain(final Predicate<String> classFilter) {
+    return this;
+  }
+
+  /**
+   * Returns statistics describing the mappings held by this remapper and the time spent
+   * loading them.
+   *
+   * <p>Remappers which do not hold any mappings, such as {@link #noop()}, report empty statistics.</p>
+   *
+   * @return remapper statistics
+   */
+  default ReflectionRemapperStats stats() {
+    return ReflectionRemapperStats.EMPTY;
+  }
+
   /**
    * Returns a noop {@link ReflectionRemapper} instance which simply passes through the given
    * names without remapping.
@@ -154,9 +222,23 @@ public interface ReflectionRemapper {
       tree.setSrcNamespace(fromNamespace);
       tree.setDstNamespaces(new ArrayList<>(Collections.singletonList(toNamespace)));
 
-      MappingReader.read(new InputStreamReader(mappings, StandardCharsets.UTF_8), tree);
+      final TimedReader reader = new TimedReader(new InputStreamReader(mappings, StandardCharsets.UTF_8));
+      final @Nullable Object parseEvent = Events.beginMappingsParse(fromNamespace, toNamespace);
+      final long parseTime;
+      try {
+        final long parseStart = System.nanoTime();
+        MappingReader.read(reader, tree);
+        parseTime = System.nanoTime() - parseStart - reader.timeNanos();
+      } finally {
+        Events.end(parseEvent);
+      }
 
-      return ReflectionRemapperImpl.fromMappingTree(tree, fromNamespace, toNamespace);
+      final @Nullable Object indexEvent = Events.beginMappingsIndex(fromNamespace, toNamespace);
+      try {
+        return ReflectionRemapperImpl.fromMappingTree(tree, fromNamespace, toNamespace, reader.timeNanos(), parseTime);
+      } finally {
+        Events.end(indexEvent);
+      }
     } catch (final IOException ex) {
       throw new RuntimeException("Failed to read mappings.", ex);
     }
@@ -165,6 +247,9 @@ public interface ReflectionRemapper {
   /**
    * Creates a new {@link ReflectionRemapper} from the given mappings.
    *
+   * <p>Tiny v2 mappings are read directly from the bytes of the file, decoding only the names
+   * the remapper keeps. Other formats are read like {@link #forMappings(InputStream, String, String)}.</p>
+   *
    * @param mappings      mappings
    * @param fromNamespace from namespace
    * @param toNamespace   to namespace
@@ -175,6 +260,14 @@ public interface ReflectionRemapper {
     final String fromNamespace,
     final String toNamespace
   ) {
+    try {
+      final @Nullable ReflectionRemapper remapper = TinyV2Reader.read(mappings, fromNamespace, toNamespace);
+      if (remapper != null) {
+        return remapper;
+      }
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
     try (final InputStream stream = Files.newInputStream(mappings)) {
       return forMappings(stream, fromNamespace, toNamespace);
     } catch (final IOException e) {
@@ -196,11 +289,16 @@ public interface ReflectionRemapper {
       return noop();
     }
 
-    try (final InputStream inputStream = Files.newInputStream(mappings)) {
-      return forPaperReobfMappings(inputStream);
+    final String header;
+    try (final InputStream inputStream = new BufferedInputStream(Files.newInputStream(mappings))) {
+      header = firstLine(inputStream);
     } catch (final IOException e) {
       throw new RuntimeException("Failed to read mappings.", e);
     }
+    if (header.contains(MappingNamespace.MOJANG_PLUS_YARN)) {
+      return forMappings(mappings, MappingNamespace.MOJANG_PLUS_YARN, MappingNamespace.SPIGOT);
+    }
+    return forMappings(mappings, MappingNamespace.MOJANG, MappingNamespace.SPIGOT);
   }
 
   /**
@@ -262,4 +360,58 @@ public interface ReflectionRemapper {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Asynchronously creates a new {@link ReflectionRemapper} using the provided Paper reobfuscation mappings.
+   *
+   * <p>If the current environment is detected to be Mojang-mapped, a completed future of {@link #noop()}
+   * will be returned rather than reading the mappings.</p>
+   *
+   * @param mappings reobf mappings
+   * @param executor executor to read the mappings on
+   * @return future reflection remapper
+   * @see #forPaperReobfMappings(Path)
+   */
+  static CompletableFuture<ReflectionRemapper> forPaperReobfMappingsAsync(final Path mappings, final Executor executor) {
+    if (mojangMapped()) {
+      return CompletableFuture.completedFuture(noop());
+    }
+    return CompletableFuture.supplyAsync(() -> forPaperReobfMappings(mappings), executor);
+  }
+
+  /**
+   * Asynchronously creates a new {@link ReflectionRemapper} using the reobf mappings file inside
+   * reobfuscated Paper jars, on the {@link ForkJoinPool#commonPool() common pool}.
+   *
+   * <p>This allows reading the mappings to overlap with the rest of server startup. The future may be
+   * given to {@link xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactory#create(CompletableFuture, ClassLoader)}
+   * to create proxies once it completes.</p>
+   *
+   * <p>If the current environment is detected to be Mojang-mapped, a completed future of {@link #noop()}
+   * will be returned rather than reading the mappings.</p>
+   *
+   * @return future reflection remapper
+   * @see #forReobfMappingsInPaperJar()
+   */
+  static CompletableFuture<ReflectionRemapper> forReobfMappingsInPaperJarAsync() {
+    return forReobfMappingsInPaperJarAsync(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Asynchronously creates a new {@link ReflectionRemapper} using the reobf mappings file inside
+   * reobfuscated Paper jars.
+   *
+   * <p>If the current environment is detected to be Mojang-mapped, a completed future of {@link #noop()}
+   * will be returned rather than reading the mappings.</p>
+   *
+   * @param executor executor to read the mappings on
+   * @return future reflection remapper
+   * @see #forReobfMappingsInPaperJarAsync()
+   */
+  static CompletableFuture<ReflectionRemapper> forReobfMappingsInPaperJarAsync(final Executor executor) {
+    if (mojangMapped()) {
+      return CompletableFuture.completedFuture(noop());
+    }
+    return CompletableFuture.supplyAsync(ReflectionRemapper::forReobfMappingsInPaperJar, executor);
+  }
 }
@@ -17,34 +17,54 @@
  */
 package xyz.jpenilla.reflectionremapper;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import net.fabricmc.mappingio.tree.MappingTree;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
+import xyz.jpenilla.reflectionremapper.internal.util.Footprint;
 import xyz.jpenilla.reflectionremapper.internal.util.StringPool;
 
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
+import static xyz.jpenilla.reflectionremapper.internal.util.Footprint.UNMODIFIABLE_MAP_BYTES;
+import static xyz.jpenilla.reflectionremapper.internal.util.Footprint.hashMapBytes;
 import static xyz.jpenilla.reflectionremapper.internal.util.Util.descriptorString;
 
 @DefaultQualifier(NonNull.class)
 final class ReflectionRemapperImpl implements ReflectionRemapper {
+  private static final int CLASS_MAPPING_BYTES = 32;
+  private static final ThreadLocal<MethodKeyLookup> METHOD_KEY_LOOKUPS = ThreadLocal.withInitial(MethodKeyLookup::new);
+
   private final Map<String, ClassMapping> mappingsByObf;
   private final Map<String, ClassMapping> mappingsByDeobf;
+  private final LoadTimes loadTimes;
+  private volatile @Nullable ReflectionRemapperStats stats;
 
-  private ReflectionRemapperImpl(final Set<ClassMapping> mappings) {
+  private ReflectionRemapperImpl(final Collection<ClassMapping> mappings, final LoadTimes loadTimes) {
     this.mappingsByObf = Collections.unmodifiableMap(
       mappings.stream().collect(toMap(ClassMapping::obfName, identity()))
     );
     this.mappingsByDeobf = Collections.unmodifiableMap(
       mappings.stream().collect(toMap(ClassMapping::deobfName, identity()))
     );
+    this.loadTimes = loadTimes;
+  }
+
+  private ReflectionRemapperImpl(final ReflectionRemapperImpl remapper, final LoadTimes loadTimes) {
+    this.mappingsByObf = remapper.mappingsByObf;
+    this.mappingsByDeobf = remapper.mappingsByDeobf;
+    this.loadTimes = loadTimes;
   }
 
   @Override
@@ -71,18 +91,80 @@ final class ReflectionRemapperImpl implements ReflectionRemapper {
     if (clsMap == null) {
       return methodName;
     }
-    return clsMap.methods().getOrDefault(methodKey(methodName, paramTypes), methodName);
+    final MethodKeyLookup key = METHOD_KEY_LOOKUPS.get().set(methodName, paramTypes);
+    try {
+      final @Nullable String obfName = clsMap.methods().get(key);
+      return obfName == null ? methodName : obfName;
+    } finally {
+      key.clear();
+    }
   }
 
-  private static String methodKey(final String deobfName, final Class<?>... paramTypes) {
-    return deobfName + paramsDescriptor(paramTypes);
+  @Override
+  public ReflectionRemapper retain(final Predicate<String> classFilter) {
+    final List<ClassMapping> retained = new ArrayList<>();
+    for (final ClassMapping mapping : this.mappingsByDeobf.values()) {
+      if (classFilter.test(mapping.deobfName())) {
+        retained.add(mapping);
+      }
+    }
+    return retained(retained);
+  }
+
+  @Override
+  public ReflectionRemapperStats stats() {
+    @Nullable ReflectionRemapperStats stats = this.stats;
+    if (stats == null) {
+      int fields = 0;
+      int methods = 0;
+      for (final ClassMapping mapping : this.mappingsByObf.values()) {
+        fields += mapping.fieldsDeobfToObf().size();
+        methods += mapping.methods().size();
+      }
+      stats = new ReflectionRemapperStats(
+        this.mappingsByObf.size(),
+        fields,
+        methods,
+        this.estimateRetainedBytes(),
+        this.loadTimes.read,
+        this.loadTimes.parse,
+        this.loadTimes.index,
+        this.loadTimes.stringPool
+      );
+      this.stats = stats;
+    }
+    return stats;
+  }
+
+  private long estimateRetainedBytes() {
+    final Set<String> strings = Collections.newSetFromMap(new IdentityHashMap<>());
+    long bytes = 2 * (UNMODIFIABLE_MAP_BYTES + hashMapBytes(this.mappingsByObf.size()));
+    for (final ClassMapping mapping : this.mappingsByObf.values()) {
+      bytes += CLASS_MAPPING_BYTES;
+      bytes += UNMODIFIABLE_MAP_BYTES + hashMapBytes(mapping.fieldsDeobfToObf().size());
+      bytes += UNMODIFIABLE_MAP_BYTES + hashMapBytes(mapping.methods().size());
+      strings.add(mapping.obfName());
+      strings.add(mapping.deobfName());
+      strings.addAll(mapping.fieldsDeobfToObf().keySet());
+      strings.addAll(mapping.fieldsDeobfToObf().values());
+      strings.addAll(mapping.methods().keySet());
+      strings.addAll(mapping.methods().values());
+    }
+    for (final String string : strings) {
+      bytes += Footprint.stringBytes(string);
+    }
+    return bytes;
+  }
+
+  Collection<ClassMapping> classMappings() {
+    return this.mappingsByObf.values();
   }
 
   private static String methodKey(final String deobfName, final String obfMethodDesc) {
     return deobfName + paramsDescFromMethodDesc(obfMethodDesc);
   }
 
-  private static String paramsDescriptor(final Class<?>... params) {
+  static String paramsDescriptor(final Class<?>... params) {
     final StringBuilder builder = new StringBuilder();
     for (final Class<?> param : params) {
       builder.append(descriptorString(param));
@@ -90,17 +172,35 @@ final class ReflectionRemapperImpl implements ReflectionRemapper {
     return builder.toString();
   }
 
-  private static String paramsDescFromMethodDesc(final String methodDescriptor) {
+  static String paramsDescFromMethodDesc(final String methodDescriptor) {
     String ret = methodDescriptor.substring(1);
     ret = ret.substring(0, ret.indexOf(")"));
     return ret;
   }
 
+  static ReflectionRemapperImpl fromClassMappings(
+    final Collection<ClassMapping> mappings,
+    final long readTime,
+    final long parseTime,
+    final long stringPoolTime
+  ) {
+    final long indexStart = System.nanoTime();
+    final ReflectionRemapperImpl remapper = new ReflectionRemapperImpl(mappings, LoadTimes.NONE);
+    return new ReflectionRemapperImpl(remapper, new LoadTimes(readTime, parseTime, System.nanoTime() - indexStart, stringPoolTime));
+  }
+
+  static ReflectionRemapperImpl retained(final Collection<ClassMapping> mappings) {
+    return new ReflectionRemapperImpl(mappings, LoadTimes.NONE);
+  }
+
   static ReflectionRemapperImpl fromMappingTree(
     final MappingTree tree,
     final String fromNamespace,
-    final String toNamespace
+    final String toNamespace,
+    final long readTime,
+    final long parseTime
   ) {
+    final long indexStart = System.nanoTime();
     final StringPool pool = new StringPool();
 
     final Set<ClassMapping> mappings = new HashSet<>();
@@ -132,16 +232,95 @@ final class ReflectionRemapperImpl implements ReflectionRemapper {
       mappings.add(map);
     }
 
-    return new ReflectionRemapperImpl(mappings);
+    final long indexTime = System.nanoTime() - indexStart;
+    final long poolTime = Math.min(pool.timeNanos(), indexTime); // sampled, may overshoot
+    return new ReflectionRemapperImpl(mappings, new LoadTimes(readTime, parseTime, indexTime - poolTime, poolTime));
+  }
+
+  private static final class LoadTimes {
+    static final LoadTimes NONE = new LoadTimes(0, 0, 0, 0);
+
+    private final long read;
+    private final long parse;
+    private final long index;
+    private final long stringPool;
+
+    private LoadTimes(final long read, final long parse, final long index, final long stringPool) {
+      this.read = read;
+      this.parse = parse;
+      this.index = index;
+      this.stringPool = stringPool;
+    }
+  }
+
+  /**
+   * Stands in for the {@code deobfName + paramsDescriptor} key of {@link ClassMapping#methods()}
+   * without building it, so method lookups do not allocate.
+   *
+   * <p>Its hash code is that of the key string, and it equals the key string. Only pass it to
+   * {@link Map#get}, which calls {@code equals} on the argument; the string does not equal it
+   * back.</p>
+   */
+  private static final class MethodKeyLookup {
+    private static final Class<?>[] NO_PARAMS = new Class<?>[0];
+
+    private String name = "";
+    private Class<?>[] paramTypes = NO_PARAMS;
+    private int hash;
+
+    MethodKeyLookup set(final String name, final Class<?>[] paramTypes) {
+      this.name = name;
+      this.paramTypes = paramTypes;
+      int hash = name.hashCode();
+      for (final Class<?> param : paramTypes) {
+        final String descriptor = descriptorString(param);
+        for (int i = 0; i < descriptor.length(); i++) {
+          hash = 31 * hash + descriptor.charAt(i);
+        }
+      }
+      this.hash = hash;
+      return this;
+    }
+
+    void clear() {
+      // don't keep the parameter types' class loaders reachable from the thread
+      this.name = "";
+      this.paramTypes = NO_PARAMS;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object obj) {
+      if (!(obj instanceof String)) {
+        return false;
+      }
+      final String key = (String) obj;
+      if (!key.startsWith(this.name)) {
+        return false;
+      }
+      int offset = this.name.length();
+      for (final Class<?> param : this.paramTypes) {
+        final String descriptor = descriptorString(param);
+        if (!key.startsWith(descriptor, offset)) {
+          return false;
+        }
+        offset += descriptor.length();
+      }
+      return offset == key.length();
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
   }
 
-  private static final class ClassMapping {
+  static final class ClassMapping {
     private final String obfName;
     private final String deobfName;
     private final Map<String, String> fieldsDeobfToObf;
     private final Map<String, String> methods; // deobfMethodName + obfParamsDescriptor -> obfMethodName
 
-    private ClassMapping(
+    ClassMapping(
       final String obfName,
       final String deobfName,
       final Map<String, String> fieldsDeobfToObf,
@@ -0,0 +1,167 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Statistics describing the mappings held by a {@link ReflectionRemapper}, and the time
+ * spent loading them.
+ *
+ * <p>Load times are only known for remappers which loaded mappings themselves, and are
+ * reported as {@code 0} otherwise, i.e. for {@link ReflectionRemapper#retain retained} remappers.</p>
+ *
+ * @see ReflectionRemapper#stats()
+ */
+@DefaultQualifier(NonNull.class)
+public final class ReflectionRemapperStats {
+  static final ReflectionRemapperStats EMPTY = new ReflectionRemapperStats(0, 0, 0, 0, 0, 0, 0, 0);
+
+  private final int classCount;
+  private final int fieldCount;
+  private final int methodCount;
+  private final long estimatedRetainedBytes;
+  private final long readTimeNanos;
+  private final long parseTimeNanos;
+  private final long indexTimeNanos;
+  private final long stringPoolTimeNanos;
+
+  ReflectionRemapperStats(
+    final int classCount,
+    final int fieldCount,
+    final int methodCount,
+    final long estimatedRetainedBytes,
+    final long readTimeNanos,
+    final long parseTimeNanos,
+    final long indexTimeNanos,
+    final long stringPoolTimeNanos
+  ) {
+    this.classCount = classCount;
+    this.fieldCount = fieldCount;
+    this.methodCount = methodCount;
+    this.estimatedRetainedBytes = estimatedRetainedBytes;
+    this.readTimeNanos = readTimeNanos;
+    this.parseTimeNanos = parseTimeNanos;
+    this.indexTimeNanos = indexTimeNanos;
+    this.stringPoolTimeNanos = stringPoolTimeNanos;
+  }
+
+  /**
+   * Returns the number of mapped classes.
+   *
+   * @return class count
+   */
+  public int classCount() {
+    return this.classCount;
+  }
+
+  /**
+   * Returns the number of mapped fields, across all classes.
+   *
+   * @return field count
+   */
+  public int fieldCount() {
+    return this.fieldCount;
+  }
+
+  /**
+   * Returns the number of mapped methods, across all classes.
+   *
+   * @return method count
+   */
+  public int methodCount() {
+    return this.methodCount;
+  }
+
+  /**
+   * Returns an estimate of the heap retained by the remapper's mappings, in bytes.
+   *
+   * <p>The estimate assumes a 64-bit JVM with compressed oops and compact strings, and
+   * counts shared (pooled) strings once.</p>
+   *
+   * @return estimated retained bytes
+   */
+  public long estimatedRetainedBytes() {
+    return this.estimatedRetainedBytes;
+  }
+
+  /**
+   * Returns the time spent reading and decoding the mappings input, in nanoseconds.
+   *
+   * @return read time
+   */
+  public long readTimeNanos() {
+    return this.readTimeNanos;
+  }
+
+  /**
+   * Returns the time spent parsing the mappings into a mapping tree, in nanoseconds,
+   * excluding {@link #readTimeNanos()}.
+   *
+   * @return parse time
+   */
+  public long parseTimeNanos() {
+    return this.parseTimeNanos;
+  }
+
+  /**
+   * Returns the time spent building the remapper's lookup tables from the parsed mappings,
+   * in nanoseconds, excluding {@link #stringPoolTimeNanos()}.
+   *
+   * @return index time
+   */
+  public long indexTimeNanos() {
+    return this.indexTimeNanos;
+  }
+
+  /**
+   * Returns the time spent deduplicating strings while building the lookup tables,
+   * in nanoseconds.
+   *
+   * <p>This is estimated from a sample of the deduplicated strings, to keep timing off the
+   * load path.</p>
+   *
+   * @return string pooling time
+   */
+  public long stringPoolTimeNanos() {
+    return this.stringPoolTimeNanos;
+  }
+
+  /**
+   * Returns the total load time, the sum of all load phases, in nanoseconds.
+   *
+   * @return total load time
+   */
+  public long totalLoadTimeNanos() {
+    return this.readTimeNanos + this.parseTimeNanos + this.indexTimeNanos + this.stringPoolTimeNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "ReflectionRemapperStats[" +
+      "classCount=" + this.classCount + ", " +
+      "fieldCount=" + this.fieldCount + ", " +
+      "methodCount=" + this.methodCount + ", " +
+      "estimatedRetainedBytes=" + this.estimatedRetainedBytes + ", " +
+      "readTimeNanos=" + this.readTimeNanos + ", " +
+      "parseTimeNanos=" + this.parseTimeNanos + ", " +
+      "indexTimeNanos=" + this.indexTimeNanos + ", " +
+      "stringPoolTimeNanos=" + this.stringPoolTimeNanos + ']';
+  }
+}
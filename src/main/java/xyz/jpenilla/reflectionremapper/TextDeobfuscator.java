@@ -0,0 +1,352 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Rewrites obfuscated class and member names in text, such as stack traces and logs, back to
+ * their named form.
+ *
+ * <p>Text is processed in a single pass. Each run of name characters, i.e.
+ * {@code net.minecraft.server.level.EntityPlayer.a}, is looked up as a whole. Rewritten forms are:</p>
+ * <ul>
+ *   <li>fully qualified class names, with {@code .} or {@code /} separators, including class
+ *   descriptors such as {@code Lnet/minecraft/server/level/EntityPlayer;}</li>
+ *   <li>a class name followed by a member name, as in stack trace frames. Members are only rewritten
+ *   when their obfuscated name maps to a single named field or method of that class, since frames
+ *   do not include descriptors. The member name embedded in synthetic {@code lambda$name$0}
+ *   and {@code access$name} members is rewritten the same way.</li>
+ *   <li>classes followed by a {@code $} suffix which is not mapped itself, i.e. anonymous classes
+ *   and lambdas, keeping the suffix</li>
+ * </ul>
+ *
+ * <p>Instances are immutable and thread safe.</p>
+ *
+ * @see MultiNamespaceMappings#deobfuscator(String, String)
+ */
+@DefaultQualifier(NonNull.class)
+public final class TextDeobfuscator {
+  private static final int BUFFER_SIZE = 8192;
+  private static final String LAMBDA_PREFIX = "lambda$";
+  private static final String ACCESS_PREFIX = "access$"; // same length as LAMBDA_PREFIX
+  private static final int SEGMENT_FILTER_BITS = 1 << 12;
+  private static final boolean[] ASCII_NAME_CHARS = new boolean[128];
+
+  static {
+    for (char c = 0; c < 128; c++) {
+      ASCII_NAME_CHARS[c] = Character.isJavaIdentifierPart(c) && !Character.isIdentifierIgnorable(c) || c == '.' || c == '/';
+    }
+  }
+
+  private final Map<String, ClassNames> classes;
+  // hashes of the first segment of every name which may be rewritten, i.e. 'net' and 'Lnet',
+  // letting most words of a text skip the lookups below
+  private final long[] segmentFilter = new long[SEGMENT_FILTER_BITS / Long.SIZE];
+
+  TextDeobfuscator(final Map<String, ClassNames> classes) {
+    this.classes = classes;
+    for (final String name : classes.keySet()) {
+      final String segment = name.substring(0, firstSegmentEnd(name, name.length()));
+      this.addSegment(segment.hashCode());
+      if (name.indexOf('/') != -1) {
+        this.addSegment(("L" + segment).hashCode());
+      }
+    }
+  }
+
+  /**
+   * Deobfuscates the given text.
+   *
+   * @param text text
+   * @return deobfuscated text
+   */
+  public String deobfuscate(final CharSequence text) {
+    final StringBuilder result = new StringBuilder(text.length() + 16);
+    final DeobfuscatingWriter writer = new DeobfuscatingWriter(null, result);
+    writer.write(text, 0, text.length());
+    writer.completeName();
+    return result.toString();
+  }
+
+  /**
+   * Deobfuscates all text read from the given reader, writing it to the given writer.
+   *
+   * <p>Neither the reader nor the writer are closed.</p>
+   *
+   * @param reader reader
+   * @param writer writer
+   * @throws IOException when reading or writing fails
+   */
+  public void deobfuscate(final Reader reader, final Writer writer) throws IOException {
+    final DeobfuscatingWriter deobfuscating = new DeobfuscatingWriter(writer, new StringBuilder(BUFFER_SIZE));
+    final char[] buffer = new char[BUFFER_SIZE];
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      deobfuscating.write(buffer, 0, read);
+    }
+    deobfuscating.finish();
+  }
+
+  /**
+   * Returns a writer deobfuscating text written to it before passing it on to the given writer.
+   *
+   * <p>Output is buffered. A name is passed on once it is complete, so {@link Writer#flush() flushing}
+   * passes on all text up to any name still being written. Closing the returned writer passes on
+   * the remaining text, and closes the given writer.</p>
+   *
+   * @param writer writer to pass deobfuscated text to
+   * @return deobfuscating writer
+   */
+  public Writer deobfuscating(final Writer writer) {
+    return new DeobfuscatingWriter(writer, new StringBuilder(BUFFER_SIZE));
+  }
+
+  private void appendName(final StringBuilder name, final StringBuilder out) {
+    // same hash as String#hashCode of the first segment
+    int hash = 0;
+    final int segmentEnd = firstSegmentEnd(name, name.length());
+    for (int i = 0; i < segmentEnd; i++) {
+      hash = 31 * hash + name.charAt(i);
+    }
+    if (this.mayContainSegment(hash)) {
+      out.append(this.deobfuscateName(name.toString()));
+    } else {
+      out.append(name);
+    }
+  }
+
+  private String deobfuscateName(final String name) {
+    final @Nullable ClassNames cls = this.classes.get(name);
+    if (cls != null) {
+      return cls.name;
+    }
+
+    // class descriptor
+    if (name.length() > 1 && name.charAt(0) == 'L') {
+      final @Nullable ClassNames descriptorClass = this.classes.get(name.substring(1));
+      if (descriptorClass != null) {
+        return 'L' + descriptorClass.name;
+      }
+    }
+
+    // class and member
+    final int separator = Math.max(name.lastIndexOf('.'), name.lastIndexOf('/'));
+    if (separator > 0) {
+      final @Nullable ClassNames owner = this.classes.get(name.substring(0, separator));
+      if (owner != null) {
+        return owner.name + name.charAt(separator) + deobfuscateMember(owner, name.substring(separator + 1));
+      }
+    }
+
+    // unmapped inner class, i.e. an anonymous class or lambda
+    final int dollar = name.indexOf('$');
+    if (dollar > 0) {
+      final @Nullable ClassNames outer = this.classes.get(name.substring(0, dollar));
+      if (outer != null) {
+        return outer.name + name.substring(dollar);
+      }
+    }
+
+    return name;
+  }
+
+  private static String deobfuscateMember(final ClassNames owner, final String member) {
+    final @Nullable String named = owner.members.get(member);
+    if (named != null) {
+      return named;
+    }
+    // lambda bodies and accessors are named after the member they were generated for
+    if (member.startsWith(LAMBDA_PREFIX) || member.startsWith(ACCESS_PREFIX)) {
+      final int start = LAMBDA_PREFIX.length();
+      final int end = member.indexOf('$', start);
+      final @Nullable String namedEmbedded = owner.members.get(end == -1 ? member.substring(start) : member.substring(start, end));
+      if (namedEmbedded != null) {
+        return member.substring(0, start) + namedEmbedded + (end == -1 ? "" : member.substring(end));
+      }
+    }
+    return member;
+  }
+
+  private void addSegment(final int hash) {
+    final int bit = filterBit(hash);
+    this.segmentFilter[bit >>> 6] |= 1L << bit;
+  }
+
+  private boolean mayContainSegment(final int hash) {
+    final int bit = filterBit(hash);
+    return (this.segmentFilter[bit >>> 6] & 1L << bit) != 0;
+  }
+
+  private static int filterBit(final int hash) {
+    return (hash ^ hash >>> 16) & SEGMENT_FILTER_BITS - 1;
+  }
+
+  private static int firstSegmentEnd(final CharSequence name, final int length) {
+    for (int i = 0; i < length; i++) {
+      final char c = name.charAt(i);
+      if (c == '.' || c == '/' || c == '$') {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  private static boolean isNameChar(final char c) {
+    return c < 128 ? ASCII_NAME_CHARS[c] : Character.isJavaIdentifierPart(c);
+  }
+
+  /**
+   * The named form of an obfuscated class, in the same format as its key.
+   */
+  static final class ClassNames {
+    private final String name;
+    private final Map<String, String> members; // obfuscated -> named, unambiguous only
+
+    ClassNames(final String name, final Map<String, String> members) {
+      this.name = name;
+      this.members = members;
+    }
+  }
+
+  private final class DeobfuscatingWriter extends Writer {
+    private final @Nullable Writer out;
+    private final StringBuilder name = new StringBuilder();
+    private final StringBuilder buffer;
+    private char @Nullable [] chars;
+
+    DeobfuscatingWriter(final @Nullable Writer out, final StringBuilder buffer) {
+      this.out = out;
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(final char[] chars, final int off, final int len) throws IOException {
+      this.deobfuscate(chars, off, off + len);
+      if (this.out != null && this.buffer.length() >= BUFFER_SIZE) {
+        this.writeBuffer();
+      }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+      this.write((CharSequence) str, off, len);
+      if (this.out != null && this.buffer.length() >= BUFFER_SIZE) {
+        this.writeBuffer();
+      }
+    }
+
+    @Override
+    public Writer append(final CharSequence csq) throws IOException {
+      this.write(csq.toString(), 0, csq.length());
+      return this;
+    }
+
+    void write(final CharSequence text, final int off, final int len) {
+      final char[] chars = this.chars();
+      for (int start = off; start < off + len; start += chars.length) {
+        final int end = Math.min(start + chars.length, off + len);
+        if (text instanceof String) {
+          ((String) text).getChars(start, end, chars, 0);
+        } else {
+          for (int i = start; i < end; i++) {
+            chars[i - start] = text.charAt(i);
+          }
+        }
+        this.deobfuscate(chars, 0, end - start);
+      }
+    }
+
+    private void deobfuscate(final char[] chars, final int off, final int end) {
+      int i = off;
+      while (i < end) {
+        // text between names is copied in runs
+        final int start = i;
+        while (i < end && !isNameChar(chars[i])) {
+          i++;
+        }
+        if (i > start) {
+          this.completeName();
+          this.buffer.append(chars, start, i - start);
+        }
+        final int nameStart = i;
+        while (i < end && isNameChar(chars[i])) {
+          i++;
+        }
+        this.name.append(chars, nameStart, i - nameStart);
+      }
+    }
+
+    private char[] chars() {
+      char[] chars = this.chars;
+      if (chars == null) {
+        chars = new char[BUFFER_SIZE];
+        this.chars = chars;
+      }
+      return chars;
+    }
+
+    void completeName() {
+      if (this.name.length() > 0) {
+        TextDeobfuscator.this.appendName(this.name, this.buffer);
+        this.name.setLength(0);
+      }
+    }
+
+    private void writeBuffer() throws IOException {
+      if (this.out == null) {
+        return;
+      }
+      final int length = this.buffer.length();
+      final char[] chars = this.chars();
+      for (int start = 0; start < length; start += chars.length) {
+        final int end = Math.min(start + chars.length, length);
+        this.buffer.getChars(start, end, chars, 0);
+        this.out.write(chars, 0, end - start);
+      }
+      this.buffer.setLength(0);
+    }
+
+    void finish() throws IOException {
+      this.completeName();
+      this.writeBuffer();
+    }
+
+    @Override
+    public void flush() throws IOException {
+      this.writeBuffer();
+      if (this.out != null) {
+        this.out.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.finish();
+      if (this.out != null) {
+        this.out.close();
+      }
+    }
+  }
+}
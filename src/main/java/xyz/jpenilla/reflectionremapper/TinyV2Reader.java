@@ -0,0 +1,288 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import xyz.jpenilla.reflectionremapper.internal.jfr.Events;
+import xyz.jpenilla.reflectionremapper.internal.util.StringPool;
+
+/**
+ * Reads Tiny v2 mappings directly from the bytes of a file.
+ *
+ * <p>Lines are tokenized in place, and only the names kept by {@link ReflectionRemapperImpl} are
+ * decoded into strings; other namespaces, comments, parameters and local variables are skipped
+ * without decoding. Files this reader doesn't handle, i.e. other formats or files with escaped
+ * names, are left to mapping-io.</p>
+ *
+ * <p>The file is read into a heap buffer rather than memory-mapped, as a mapped buffer can't be
+ * unmapped before it is garbage collected, keeping the file open (and locked, on Windows) until
+ * then.</p>
+ */
+@DefaultQualifier(NonNull.class)
+final class TinyV2Reader {
+  private static final byte[] HEADER = "tiny\t2\t".getBytes(StandardCharsets.US_ASCII);
+  private static final String ESCAPED_NAMES = "escaped-names";
+  private static final byte TAB = '\t';
+  private static final byte LF = '\n';
+  private static final byte CR = '\r';
+
+  private final ByteBuffer buffer;
+  private final int limit;
+  private final StringPool pool = new StringPool();
+  private int[] tokenStarts = new int[0]; // per namespace, sized from the header
+  private int[] tokenEnds = new int[0];
+  private byte[] scratch = new byte[128];
+
+  private TinyV2Reader(final ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.limit = buffer.limit();
+  }
+
+  /**
+   * Reads the given mappings, or returns {@code null} when they must be read by mapping-io instead.
+   *
+   * @param path          mappings file
+   * @param fromNamespace from namespace
+   * @param toNamespace   to namespace
+   * @return remapper, or {@code null}
+   * @throws IOException when reading the file fails
+   */
+  static @Nullable ReflectionRemapperImpl read(final Path path, final String fromNamespace, final String toNamespace) throws IOException {
+    final long readStart = System.nanoTime();
+    if (Files.size(path) > Integer.MAX_VALUE - 8) { // larger than the largest array
+      return null;
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+    final long readTime = System.nanoTime() - readStart;
+
+    final @Nullable Object parseEvent = Events.beginMappingsParse(fromNamespace, toNamespace);
+    final @Nullable List<ReflectionRemapperImpl.ClassMapping> mappings;
+    final long parseTime;
+    final long poolTime;
+    try {
+      final long parseStart = System.nanoTime();
+      final TinyV2Reader reader = new TinyV2Reader(buffer);
+      mappings = reader.read(fromNamespace, toNamespace);
+      final long elapsed = System.nanoTime() - parseStart;
+      poolTime = Math.min(reader.pool.timeNanos(), elapsed); // sampled, may overshoot
+      parseTime = elapsed - poolTime;
+    } finally {
+      Events.end(parseEvent);
+    }
+    if (mappings == null) {
+      return null;
+    }
+
+    final @Nullable Object indexEvent = Events.beginMappingsIndex(fromNamespace, toNamespace);
+    try {
+      return ReflectionRemapperImpl.fromClassMappings(mappings, readTime, parseTime, poolTime);
+    } finally {
+      Events.end(indexEvent);
+    }
+  }
+
+  private @Nullable List<ReflectionRemapperImpl.ClassMapping> read(final String fromNamespace, final String toNamespace) {
+    for (int i = 0; i < HEADER.length; i++) {
+      if (i >= this.limit || this.buffer.get(i) != HEADER[i]) {
+        return null;
+      }
+    }
+
+    // header: tiny 2 <minor> <namespaces...>
+    int pos = 0;
+    int lineEnd = this.lineEnd(pos);
+    final List<String> namespaces = new ArrayList<>();
+    for (int start = pos, i = 0; start <= lineEnd; i++) {
+      final int end = this.tokenEnd(start, lineEnd);
+      if (i >= 3) {
+        namespaces.add(this.decode(start, end, false));
+      }
+      start = end + 1;
+    }
+    final int from = namespaces.indexOf(fromNamespace);
+    final int to = namespaces.indexOf(toNamespace);
+    if (from == -1 || to == -1) {
+      return null;
+    }
+    this.tokenStarts = new int[namespaces.size()];
+    this.tokenEnds = new int[namespaces.size()];
+    pos = this.nextLine(lineEnd);
+
+    // header properties
+    while (pos < this.limit && this.buffer.get(pos) == TAB) {
+      lineEnd = this.lineEnd(pos);
+      final int end = this.tokenEnd(pos + 1, lineEnd);
+      if (this.decode(pos + 1, end, false).equals(ESCAPED_NAMES)) {
+        return null;
+      }
+      pos = this.nextLine(lineEnd);
+    }
+
+    // method descriptors are in the first namespace, so their class names are remapped to the target namespace
+    final @Nullable Map<String, String> descriptorClasses = to == 0 ? null : this.classNames(pos, to);
+
+    final List<ReflectionRemapperImpl.ClassMapping> mappings = new ArrayList<>();
+    @Nullable String obfName = null;
+    @Nullable String deobfName = null;
+    Map<String, String> fields = new HashMap<>();
+    Map<String, String> methods = new HashMap<>();
+    final StringBuilder key = new StringBuilder();
+    while (pos < this.limit) {
+      lineEnd = this.lineEnd(pos);
+      if (this.buffer.get(pos) == 'c' && pos + 1 < this.limit && this.buffer.get(pos + 1) == TAB) {
+        if (obfName != null) {
+          mappings.add(new ReflectionRemapperImpl.ClassMapping(obfName, deobfName, Collections.unmodifiableMap(fields), Collections.unmodifiableMap(methods)));
+          fields = new HashMap<>();
+          methods = new HashMap<>();
+        }
+        this.tokenize(pos + 2, lineEnd, namespaces.size());
+        deobfName = this.name(from, true);
+        obfName = this.name(to, true);
+      } else if (obfName != null && this.buffer.get(pos) == TAB && pos + 2 < this.limit && this.buffer.get(pos + 2) == TAB) {
+        final byte kind = this.buffer.get(pos + 1);
+        if (kind == 'f') {
+          this.tokenize(this.tokenEnd(pos + 3, lineEnd) + 1, lineEnd, namespaces.size());
+          fields.put(
+            this.pool.string(this.name(from, false)),
+            this.pool.string(this.name(to, false))
+          );
+        } else if (kind == 'm') {
+          final int descEnd = this.tokenEnd(pos + 3, lineEnd);
+          this.tokenize(descEnd + 1, lineEnd, namespaces.size());
+          key.setLength(0);
+          key.append(this.name(from, false));
+          this.appendParams(key, pos + 3, descEnd, descriptorClasses);
+          methods.put(
+            this.pool.string(key.toString()),
+            this.pool.string(this.name(to, false))
+          );
+        }
+      }
+      pos = this.nextLine(lineEnd);
+    }
+    if (obfName != null) {
+      mappings.add(new ReflectionRemapperImpl.ClassMapping(obfName, deobfName, Collections.unmodifiableMap(fields), Collections.unmodifiableMap(methods)));
+    }
+    return mappings;
+  }
+
+  private Map<String, String> classNames(final int start, final int namespace) {
+    final Map<String, String> names = new HashMap<>();
+    int pos = start;
+    while (pos < this.limit) {
+      final int lineEnd = this.lineEnd(pos);
+      if (this.buffer.get(pos) == 'c' && pos + 1 < this.limit && this.buffer.get(pos + 1) == TAB) {
+        this.tokenize(pos + 2, lineEnd, namespace + 1);
+        names.put(this.decode(this.tokenStarts[0], this.tokenEnds[0], false), this.name(namespace, false));
+      }
+      pos = this.nextLine(lineEnd);
+    }
+    return names;
+  }
+
+  // names missing in a namespace fall back to the first namespace's name
+  private String name(final int namespace, final boolean dotted) {
+    final int index = this.tokenEnds[namespace] > this.tokenStarts[namespace] ? namespace : 0;
+    return this.decode(this.tokenStarts[index], this.tokenEnds[index], dotted);
+  }
+
+  private void appendParams(final StringBuilder builder, final int descStart, final int descEnd, final @Nullable Map<String, String> classNames) {
+    int pos = descStart + 1; // skip '('
+    while (pos < descEnd) {
+      final byte b = this.buffer.get(pos);
+      if (b == ')') {
+        return;
+      }
+      if (b == 'L') {
+        int end = pos + 1;
+        while (this.buffer.get(end) != ';') {
+          end++;
+        }
+        final String name = this.decode(pos + 1, end, false);
+        builder.append('L').append(classNames == null ? name : classNames.getOrDefault(name, name)).append(';');
+        pos = end + 1;
+      } else {
+        builder.append((char) b);
+        pos++;
+      }
+    }
+  }
+
+  private void tokenize(final int start, final int lineEnd, final int count) {
+    int pos = start;
+    for (int i = 0; i < count; i++) {
+      final int end = pos > lineEnd ? pos : this.tokenEnd(pos, lineEnd);
+      this.tokenStarts[i] = pos;
+      this.tokenEnds[i] = end;
+      pos = end + 1;
+    }
+  }
+
+  private int tokenEnd(final int start, final int lineEnd) {
+    int pos = start;
+    while (pos < lineEnd && this.buffer.get(pos) != TAB) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private int lineEnd(final int start) {
+    int pos = start;
+    while (pos < this.limit && this.buffer.get(pos) != LF) {
+      pos++;
+    }
+    return pos > start && this.buffer.get(pos - 1) == CR ? pos - 1 : pos;
+  }
+
+  private int nextLine(final int lineEnd) {
+    int pos = lineEnd;
+    while (pos < this.limit && this.buffer.get(pos) != LF) {
+      pos++;
+    }
+    return pos + 1;
+  }
+
+  private String decode(final int start, final int end, final boolean dotted) {
+    final int length = end - start;
+    if (this.scratch.length < length) {
+      this.scratch = new byte[Math.max(length, this.scratch.length * 2)];
+    }
+    boolean ascii = true;
+    for (int i = 0; i < length; i++) {
+      byte b = this.buffer.get(start + i);
+      if (dotted && b == '/') {
+        b = '.';
+      }
+      ascii &= b >= 0;
+      this.scratch[i] = b;
+    }
+    return new String(this.scratch, 0, length, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+  }
+}
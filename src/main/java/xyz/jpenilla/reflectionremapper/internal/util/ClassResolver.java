@@ -0,0 +1,62 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.internal.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Resolves classes by their Mojang-mapped name, caching the result per class loader.
+ *
+ * <p>Classes are loaded without being initialized. Failed lookups are not cached.</p>
+ *
+ * <p>Class loaders and resolved classes are only weakly referenced, so a long-lived resolver
+ * does not keep unloaded plugins' class loaders reachable.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class ClassResolver {
+  private final UnaryOperator<String> classMapper;
+  // WeakHashMap allows the bootstrap loader's null key. Classes are weakly referenced as they
+  // strongly reference their own loader, which may be the key
+  private final Map<@Nullable ClassLoader, Map<String, WeakReference<Class<?>>>> classes = Collections.synchronizedMap(new WeakHashMap<>());
+
+  public ClassResolver(final UnaryOperator<String> classMapper) {
+    this.classMapper = classMapper;
+  }
+
+  public Class<?> resolve(final String className, final @Nullable ClassLoader classLoader) throws ClassNotFoundException {
+    final Map<String, WeakReference<Class<?>>> loaded = this.classes.computeIfAbsent(classLoader, key -> new ConcurrentHashMap<>());
+    final @Nullable WeakReference<Class<?>> cached = loaded.get(className);
+    if (cached != null) {
+      final @Nullable Class<?> cls = cached.get();
+      if (cls != null) {
+        return cls;
+      }
+    }
+    final Class<?> cls = Class.forName(this.classMapper.apply(className), false, classLoader);
+    loaded.put(className, new WeakReference<>(cls));
+    return cls;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.internal.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+@DefaultQualifier(NonNull.class)
+public final class ClockCache<K, V> {
+  private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+  private final @Nullable Entry<K, V>[] slots;
+  private int size;
+  private int hand;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public ClockCache(final int capacity) {
+    this.slots = new Entry[capacity];
+  }
+
+  public @Nullable V get(final K key) {
+    final @Nullable Entry<K, V> entry = this.entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.referenced) {
+      entry.referenced = true;
+    }
+    return entry.value;
+  }
+
+  public synchronized void put(final K key, final V value) {
+    if (this.entries.containsKey(key)) {
+      return;
+    }
+    final Entry<K, V> entry = new Entry<>(key, value);
+    if (this.size < this.slots.length) {
+      this.slots[this.size++] = entry;
+    } else {
+      // second chance: evict the first entry not used since the hand last passed it
+      Entry<K, V> candidate = this.slots[this.hand];
+      while (candidate.referenced) {
+        candidate.referenced = false;
+        this.hand = (this.hand + 1) % this.slots.length;
+        candidate = this.slots[this.hand];
+      }
+      this.entries.remove(candidate.key);
+      this.slots[this.hand] = entry;
+      this.hand = (this.hand + 1) % this.slots.length;
+    }
+    this.entries.put(key, entry);
+  }
+
+  private static final class Entry<K, V> {
+    private final K key;
+    private final V value;
+    private volatile boolean referenced;
+
+    Entry(final K key, final V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.internal.util;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Object size estimates, assuming a 64-bit JVM with compressed oops and compact strings.
+ */
+@DefaultQualifier(NonNull.class)
+public final class Footprint {
+  public static final int OBJECT_HEADER_BYTES = 12;
+  public static final int REFERENCE_BYTES = 4;
+  public static final int ARRAY_HEADER_BYTES = 16;
+  public static final int STRING_BYTES = 24;
+  public static final int HASH_MAP_BYTES = 48;
+  public static final int HASH_MAP_NODE_BYTES = 32;
+  public static final int HASH_SET_BYTES = 16;
+  public static final int UNMODIFIABLE_MAP_BYTES = 32;
+  public static final int UNMODIFIABLE_SET_BYTES = 16;
+
+  private Footprint() {
+  }
+
+  public static long hashMapBytes(final int size) {
+    if (size == 0) {
+      return HASH_MAP_BYTES;
+    }
+    int capacity = 16;
+    while (capacity * 0.75F < size) {
+      capacity <<= 1;
+    }
+    return HASH_MAP_BYTES + align(ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * capacity) + (long) HASH_MAP_NODE_BYTES * size;
+  }
+
+  public static long stringBytes(final String string) {
+    return STRING_BYTES + align(ARRAY_HEADER_BYTES + string.length());
+  }
+
+  public static long align(final long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+}
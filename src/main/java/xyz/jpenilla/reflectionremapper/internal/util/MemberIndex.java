@@ -0,0 +1,162 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.internal.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Index of a class's declared members, keyed by name and parameter types.
+ *
+ * <p>{@link Class#getDeclaredMethod} and friends copy the class's reflection data on every
+ * call, which makes resolving many members of a large class one by one quadratic. An index
+ * copies each kind of member once, on first use, and then serves every lookup from a map.</p>
+ *
+ * <p>Not thread safe; intended to live for a single proxy interface scan.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class MemberIndex {
+  private final Class<?> type;
+  private @MonotonicNonNull Map<String, Field> fields;
+  private @MonotonicNonNull Map<Signature, Method> methods;
+  private @MonotonicNonNull Map<Signature, Constructor<?>> constructors;
+  private @MonotonicNonNull Map<String, Class<?>[]> methodParameterTypes;
+  private @MonotonicNonNull Map<String, Constructor<?>> constructorsByDescriptor;
+
+  public MemberIndex(final Class<?> type) {
+    this.type = type;
+  }
+
+  public @Nullable Field field(final String name) {
+    if (this.fields == null) {
+      final Field[] declared = this.type.getDeclaredFields();
+      this.fields = new HashMap<>(capacity(declared.length));
+      for (final Field field : declared) {
+        this.fields.put(field.getName(), field);
+      }
+    }
+    return this.fields.get(name);
+  }
+
+  public @Nullable Method method(final String name, final Class<?>[] parameterTypes) {
+    if (this.methods == null) {
+      final Method[] declared = this.type.getDeclaredMethods();
+      this.methods = new HashMap<>(capacity(declared.length));
+      for (final Method method : declared) {
+        // Like getDeclaredMethod, prefer the most specific return type when bridges share a signature
+        this.methods.merge(
+          new Signature(method.getName(), method.getParameterTypes()),
+          method,
+          (existing, candidate) -> existing.getReturnType().isAssignableFrom(candidate.getReturnType()) ? candidate : existing
+        );
+      }
+    }
+    return this.methods.get(new Signature(name, parameterTypes));
+  }
+
+  public @Nullable Constructor<?> constructor(final Class<?>[] parameterTypes) {
+    if (this.constructors == null) {
+      final Constructor<?>[] declared = this.type.getDeclaredConstructors();
+      this.constructors = new HashMap<>(capacity(declared.length));
+      for (final Constructor<?> constructor : declared) {
+        this.constructors.put(new Signature("<init>", constructor.getParameterTypes()), constructor);
+      }
+    }
+    return this.constructors.get(new Signature("<init>", parameterTypes));
+  }
+
+  /**
+   * Returns the parameter types of any declared method whose parameters have the given descriptor.
+   *
+   * <p>Parameter types are only resolved to classes which the declared methods already reference.</p>
+   *
+   * @param parametersDescriptor JVM descriptor of the parameters, without parentheses
+   * @return parameter types, or {@code null} when no method has them
+   */
+  public Class<?> @Nullable [] methodParameterTypes(final String parametersDescriptor) {
+    if (this.methodParameterTypes == null) {
+      final Method[] declared = this.type.getDeclaredMethods();
+      this.methodParameterTypes = new HashMap<>(capacity(declared.length));
+      for (final Method method : declared) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        this.methodParameterTypes.putIfAbsent(parametersDescriptor(parameterTypes), parameterTypes);
+      }
+    }
+    return this.methodParameterTypes.get(parametersDescriptor);
+  }
+
+  public @Nullable Constructor<?> constructor(final String parametersDescriptor) {
+    if (this.constructorsByDescriptor == null) {
+      final Constructor<?>[] declared = this.type.getDeclaredConstructors();
+      this.constructorsByDescriptor = new HashMap<>(capacity(declared.length));
+      for (final Constructor<?> constructor : declared) {
+        this.constructorsByDescriptor.put(parametersDescriptor(constructor.getParameterTypes()), constructor);
+      }
+    }
+    return this.constructorsByDescriptor.get(parametersDescriptor);
+  }
+
+  private static String parametersDescriptor(final Class<?>[] parameterTypes) {
+    final StringBuilder builder = new StringBuilder();
+    for (final Class<?> parameterType : parameterTypes) {
+      builder.append(Util.descriptorString(parameterType));
+    }
+    return builder.toString();
+  }
+
+  private static int capacity(final int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+
+  private static final class Signature {
+    private final String name;
+    private final Class<?>[] parameterTypes;
+    private final int hash;
+
+    Signature(final String name, final Class<?>[] parameterTypes) {
+      this.name = name;
+      this.parameterTypes = parameterTypes;
+      this.hash = 31 * name.hashCode() + Arrays.hashCode(parameterTypes);
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Signature)) {
+        return false;
+      }
+      final Signature that = (Signature) o;
+      return this.name.equals(that.name) && Arrays.equals(this.parameterTypes, that.parameterTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
@@ -25,7 +25,12 @@ import org.checkerframework.framework.qual.DefaultQualifier;
 
 @DefaultQualifier(NonNull.class)
 public final class StringPool {
+  // time one in every SAMPLE_INTERVAL calls rather than reading the clock twice per string
+  private static final int SAMPLE_INTERVAL = 64;
+
   private final Map<String, String> pool;
+  private long calls;
+  private long sampledTimeNanos;
 
   public StringPool(final Map<String, String> backingMap) {
     this.pool = backingMap;
@@ -36,6 +41,25 @@ public final class StringPool {
   }
 
   public String string(final String string) {
-    return this.pool.computeIfAbsent(string, Function.identity());
+    if ((this.calls++ & (SAMPLE_INTERVAL - 1)) != 0) {
+      return this.pool.computeIfAbsent(string, Function.identity());
+    }
+    final long start = System.nanoTime();
+    final String pooled = this.pool.computeIfAbsent(string, Function.identity());
+    this.sampledTimeNanos += System.nanoTime() - start;
+    return pooled;
+  }
+
+  public int size() {
+    return this.pool.size();
+  }
+
+  /**
+   * Returns the estimated time spent pooling strings, extrapolated from sampled calls.
+   *
+   * @return estimated pooling time
+   */
+  public long timeNanos() {
+    return this.sampledTimeNanos * SAMPLE_INTERVAL;
   }
 }
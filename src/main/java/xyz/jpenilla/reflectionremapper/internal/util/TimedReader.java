@@ -0,0 +1,70 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.internal.util;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * A {@link Reader} that accumulates the time spent blocked in its delegate's read methods.
+ */
+@DefaultQualifier(NonNull.class)
+public final class TimedReader extends FilterReader {
+  private long timeNanos;
+
+  public TimedReader(final Reader delegate) {
+    super(delegate);
+  }
+
+  @Override
+  public int read() throws IOException {
+    final long start = System.nanoTime();
+    try {
+      return super.read();
+    } finally {
+      this.timeNanos += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public int read(final char[] buffer, final int offset, final int length) throws IOException {
+    final long start = System.nanoTime();
+    try {
+      return super.read(buffer, offset, length);
+    } finally {
+      this.timeNanos += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public long skip(final long n) throws IOException {
+    final long start = System.nanoTime();
+    try {
+      return super.skip(n);
+    } finally {
+      this.timeNanos += System.nanoTime() - start;
+    }
+  }
+
+  public long timeNanos() {
+    return this.timeNanos;
+  }
+}
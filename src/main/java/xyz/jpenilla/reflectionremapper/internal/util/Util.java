@@ -34,7 +34,6 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.function.UnaryOperator;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
@@ -47,6 +46,13 @@ public final class Util {
 
   private static final @Nullable Method PRIVATE_LOOKUP_IN = findMethod(MethodHandles.class, "privateLookupIn", Class.class, MethodHandles.Lookup.class);
   private static final @Nullable Method DESCRIPTOR_STRING = findMethod(Class.class, "descriptorString");
+  // remapMethodName builds a descriptor on every lookup
+  private static final ClassValue<String> DESCRIPTOR_STRINGS = new ClassValue<String>() {
+    @Override
+    protected String computeValue(final Class<?> type) {
+      return computeDescriptorString(type);
+    }
+  };
 
   public static boolean mojangMapped() {
     return classExists("net.minecraft.server.level.ServerPlayer");
@@ -85,7 +91,7 @@ public final class Util {
 
   public static Class<?> findProxiedClass(
     final Class<?> proxyInterface,
-    final UnaryOperator<String> classMapper
+    final ClassResolver classResolver
   ) {
     if (!proxyInterface.isInterface()) {
       throw new IllegalArgumentException(proxyInterface.getTypeName() + " is not an interface annotated with @Proxies.");
@@ -105,7 +111,7 @@ public final class Util {
     }
 
     try {
-      return Class.forName(classMapper.apply(proxies.className()));
+      return classResolver.resolve(proxies.className(), proxyInterface.getClassLoader());
     } catch (final ClassNotFoundException ex) {
       throw new IllegalArgumentException("Could not find class for @Proxied className() " + proxies.className() + ".");
     }
@@ -162,6 +168,10 @@ public final class Util {
   }
 
   public static String descriptorString(final Class<?> clazz) {
+    return DESCRIPTOR_STRINGS.get(clazz);
+  }
+
+  private static String computeDescriptorString(final Class<?> clazz) {
     if (DESCRIPTOR_STRING != null) {
       // jdk 12+
       try {
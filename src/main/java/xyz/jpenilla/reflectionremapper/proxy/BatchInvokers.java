@@ -0,0 +1,145 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Wraps method handles into a single handle invoking them once per receiver for
+ * {@link xyz.jpenilla.reflectionremapper.proxy.annotation.BatchInvoker} methods.
+ *
+ * <p>This is the Java 8 implementation, looping in a helper method shared by every batch handle.
+ * On Java 11+, the multi-release variant of this class builds each loop from method handle
+ * combinators instead, so that the JIT can specialize it for its target.</p>
+ */
+@DefaultQualifier(NonNull.class)
+final class BatchInvokers {
+  private static final MethodHandle INVOKE;
+
+  static {
+    try {
+      INVOKE = MethodHandles.lookup().findStatic(
+        BatchInvokers.class,
+        "invoke",
+        MethodType.methodType(void.class, MethodHandle.class, Object.class, Object.class, Object[].class)
+      );
+    } catch (final ReflectiveOperationException ex) {
+      throw new ExceptionInInitializerError(ex);
+    }
+  }
+
+  private BatchInvokers() {
+  }
+
+  /**
+   * Creates a handle of type {@code (Object, Object...)void} invoking {@code target} for each
+   * receiver in the first argument, an array or {@link Iterable}, with the remaining arguments.
+   *
+   * <p>When {@code outputType} is non-null the handle takes an additional trailing array of that
+   * type, and each result is stored into it at the index of its receiver.</p>
+   *
+   * <p>An output array shorter than the receivers, when they are an array or a {@link Collection},
+   * fails with an {@link IllegalArgumentException} before any invocation.</p>
+   *
+   * @param target     target handle, taking the receiver first
+   * @param outputType output array type, or {@code null} to discard results
+   * @return batch handle
+   */
+  static MethodHandle batch(final MethodHandle target, final @Nullable Class<?> outputType) {
+    final MethodHandle fixed = target.asFixedArity();
+    final int arguments = fixed.type().parameterCount() - 1;
+    final Class<?> returnType = fixed.type().returnType();
+    // (Object receiver, Object[] args)R
+    final MethodHandle element = fixed.asSpreader(Object[].class, arguments)
+      .asType(MethodType.methodType(returnType, Object.class, Object[].class));
+
+    // (Object output, int index, Object receiver, Object[] args)void
+    final MethodHandle step;
+    if (outputType != null) {
+      final MethodHandle store = MethodHandles.arrayElementSetter(outputType)
+        .asType(MethodType.methodType(void.class, Object.class, int.class, returnType));
+      step = MethodHandles.collectArguments(store, 2, element);
+    } else {
+      step = MethodHandles.dropArguments(
+        element.asType(MethodType.methodType(void.class, Object.class, Object[].class)),
+        0,
+        Object.class,
+        int.class
+      );
+    }
+
+    // (Object receivers, Object output, Object... args)void
+    final MethodHandle handle = MethodHandles.insertArguments(INVOKE, 0, step)
+      .asCollector(Object[].class, arguments);
+    if (outputType == null) {
+      return MethodHandles.insertArguments(handle, 1, (Object) null);
+    }
+    // move the output array after the arguments
+    final int[] reorder = new int[arguments + 2];
+    reorder[1] = arguments + 1;
+    for (int i = 0; i < arguments; i++) {
+      reorder[i + 2] = i + 1;
+    }
+    final MethodType type = MethodType.genericMethodType(arguments + 2).changeReturnType(void.class);
+    return MethodHandles.permuteArguments(handle, type, reorder);
+  }
+
+  private static void invoke(
+    final MethodHandle step,
+    final Object receivers,
+    final @Nullable Object output,
+    final Object[] args
+  ) throws Throwable {
+    checkOutput(receivers, output);
+    if (receivers instanceof Object[]) {
+      final Object[] array = (Object[]) receivers;
+      for (int i = 0; i < array.length; i++) {
+        step.invokeExact(output, i, array[i], args);
+      }
+      return;
+    }
+    int i = 0;
+    for (final Object receiver : (Iterable<?>) receivers) {
+      step.invokeExact(output, i++, receiver, args);
+    }
+  }
+
+  private static void checkOutput(final Object receivers, final @Nullable Object output) {
+    if (output == null) {
+      return;
+    }
+    final int count;
+    if (receivers instanceof Object[]) {
+      count = ((Object[]) receivers).length;
+    } else if (receivers instanceof Collection) {
+      count = ((Collection<?>) receivers).size();
+    } else {
+      return; // checked by the output array's stores
+    }
+    if (Array.getLength(output) < count) {
+      throw new IllegalArgumentException("Output array of length " + Array.getLength(output) + " can't hold results for " + count + " receivers");
+    }
+  }
+}
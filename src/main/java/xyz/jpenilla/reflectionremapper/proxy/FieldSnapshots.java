@@ -0,0 +1,140 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import xyz.jpenilla.reflectionremapper.internal.util.Util;
+
+/**
+ * Combines field getters into a single handle for {@link xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSnapshot} methods.
+ *
+ * <p>All handles take the receiver first.</p>
+ */
+@DefaultQualifier(NonNull.class)
+final class FieldSnapshots {
+  private static final MethodHandle NOOP;
+  private static final MethodHandle NEW_ARRAY;
+
+  static {
+    try {
+      NOOP = MethodHandles.lookup().findStatic(FieldSnapshots.class, "noop", MethodType.methodType(void.class));
+      NEW_ARRAY = MethodHandles.lookup().findStatic(Array.class, "newInstance", MethodType.methodType(Object.class, Class.class, int.class));
+    } catch (final ReflectiveOperationException ex) {
+      throw new ExceptionInInitializerError(ex);
+    }
+  }
+
+  private FieldSnapshots() {
+  }
+
+  /**
+   * Creates a handle of type {@code (Object, A)void} storing each getter's value into an array of type {@code A}.
+   *
+   * @param getters   getters, taking the receiver
+   * @param arrayType array type
+   * @return filling handle
+   */
+  static MethodHandle fill(final List<MethodHandle> getters, final Class<?> arrayType) {
+    final Class<?> componentType = arrayType.getComponentType();
+    final MethodHandle setter = MethodHandles.arrayElementSetter(arrayType);
+    MethodHandle handle = MethodHandles.dropArguments(NOOP, 0, Object.class, arrayType);
+    for (int i = getters.size() - 1; i >= 0; i--) {
+      // (A array, Object receiver) -> array[i] = getter(receiver)
+      final MethodHandle store = MethodHandles.filterArguments(
+        MethodHandles.insertArguments(setter, 1, i),
+        1,
+        getters.get(i).asType(MethodType.methodType(componentType, Object.class))
+      );
+      handle = MethodHandles.foldArguments(
+        handle,
+        MethodHandles.permuteArguments(store, MethodType.methodType(void.class, Object.class, arrayType), 1, 0)
+      );
+    }
+    return handle;
+  }
+
+  /**
+   * Creates a handle of type {@code (Object)A} returning a new array of type {@code A} holding each getter's value.
+   *
+   * @param getters   getters, taking the receiver
+   * @param arrayType array type
+   * @return array creating handle
+   */
+  static MethodHandle toArray(final List<MethodHandle> getters, final Class<?> arrayType) {
+    final MethodHandle newArray = MethodHandles.insertArguments(NEW_ARRAY, 0, arrayType.getComponentType(), getters.size())
+      .asType(MethodType.methodType(arrayType));
+    // (A array, Object receiver) -> fill(receiver, array), array
+    final MethodHandle fillAndReturn = MethodHandles.foldArguments(
+      MethodHandles.dropArguments(MethodHandles.identity(arrayType), 1, Object.class),
+      MethodHandles.permuteArguments(fill(getters, arrayType), MethodType.methodType(void.class, arrayType, Object.class), 1, 0)
+    );
+    return MethodHandles.foldArguments(fillAndReturn, newArray);
+  }
+
+  /**
+   * Creates a handle of type {@code (Object)T} invoking the constructor of {@code T} taking each getter's value.
+   *
+   * @param getters getters, taking the receiver
+   * @param type    type to construct
+   * @return constructing handle
+   */
+  static MethodHandle construct(final List<MethodHandle> getters, final Class<?> type) {
+    final Constructor<?> constructor = findConstructor(type, getters);
+    constructor.setAccessible(true);
+    final MethodHandle handle = Util.sneakyThrows(() -> MethodHandles.lookup().unreflectConstructor(constructor));
+
+    final MethodHandle[] filters = new MethodHandle[getters.size()];
+    for (int i = 0; i < filters.length; i++) {
+      filters[i] = getters.get(i).asType(MethodType.methodType(handle.type().parameterType(i), Object.class));
+    }
+    // every getter reads from the same receiver
+    return MethodHandles.permuteArguments(
+      MethodHandles.filterArguments(handle, 0, filters),
+      MethodType.methodType(type, Object.class),
+      new int[filters.length]
+    );
+  }
+
+  private static Constructor<?> findConstructor(final Class<?> type, final List<MethodHandle> getters) {
+    @Nullable Constructor<?> found = null;
+    for (final Constructor<?> constructor : type.getDeclaredConstructors()) {
+      if (constructor.getParameterCount() != getters.size()) {
+        continue;
+      }
+      if (found != null) {
+        throw new IllegalArgumentException("Class " + type.getTypeName() + " has more than one constructor with " + getters.size() + " parameters.");
+      }
+      found = constructor;
+    }
+    if (found == null) {
+      throw new IllegalArgumentException("Class " + type.getTypeName() + " has no constructor with " + getters.size() + " parameters.");
+    }
+    return found;
+  }
+
+  private static void noop() {
+  }
+}
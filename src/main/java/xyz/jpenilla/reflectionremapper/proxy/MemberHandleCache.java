@@ -0,0 +1,131 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import xyz.jpenilla.reflectionremapper.internal.jfr.Events;
+import xyz.jpenilla.reflectionremapper.internal.util.Util;
+
+/**
+ * Process-wide cache of unreflected member handles, shared by every proxy and factory.
+ *
+ * <p>Handles are stored per declaring class in a {@link ClassValue}, so cached entries do not
+ * keep the proxied class, or its class loader, reachable.</p>
+ */
+@DefaultQualifier(NonNull.class)
+final class MemberHandleCache {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final ClassValue<Map<Key, MethodHandle>> HANDLES = new ClassValue<Map<Key, MethodHandle>>() {
+    @Override
+    protected Map<Key, MethodHandle> computeValue(final Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  private MemberHandleCache() {
+  }
+
+  static MethodHandle getter(final Field field) {
+    return handle(field, Kind.GETTER);
+  }
+
+  static MethodHandle setter(final Field field) {
+    return handle(field, Kind.SETTER);
+  }
+
+  static MethodHandle method(final Method method) {
+    return handle(method, Kind.INVOKE);
+  }
+
+  static MethodHandle constructor(final Constructor<?> constructor) {
+    return handle(constructor, Kind.INVOKE);
+  }
+
+  private static <M extends AccessibleObject & Member> MethodHandle handle(final M member, final Kind kind) {
+    return HANDLES.get(member.getDeclaringClass()).computeIfAbsent(new Key(member, kind), key -> unreflect(member, kind));
+  }
+
+  private static <M extends AccessibleObject & Member> MethodHandle unreflect(final M member, final Kind kind) {
+    final @Nullable Object event = Events.beginUnreflect(member.getDeclaringClass(), member instanceof Constructor ? "<init>" : member.getName());
+    try {
+      try {
+        member.setAccessible(true);
+      } catch (final Exception ex) {
+        throw new IllegalStateException("Could not set access for " + member, ex);
+      }
+      return Util.sneakyThrows(() -> {
+        switch (kind) {
+          case GETTER:
+            return LOOKUP.unreflectGetter((Field) member);
+          case SETTER:
+            return LOOKUP.unreflectSetter((Field) member);
+          default:
+            return member instanceof Constructor
+              ? LOOKUP.unreflectConstructor((Constructor<?>) member)
+              : LOOKUP.unreflect((Method) member);
+        }
+      });
+    } finally {
+      Events.end(event);
+    }
+  }
+
+  private enum Kind {
+    GETTER,
+    SETTER,
+    INVOKE
+  }
+
+  private static final class Key {
+    private final Member member;
+    private final Kind kind;
+
+    Key(final Member member, final Kind kind) {
+      this.member = member;
+      this.kind = kind;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return this.kind == that.kind && this.member.equals(that.member);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * this.member.hashCode() + this.kind.hashCode();
+    }
+  }
+}
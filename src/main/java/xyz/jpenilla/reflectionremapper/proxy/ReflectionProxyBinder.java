@@ -0,0 +1,62 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy;
+
+import java.lang.reflect.Proxy;
+import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Creates receiver-bound instances of a "reflection proxy interface".
+ *
+ * <p>Each bound proxy passes its receiver to the method handles of its instance members, so calls
+ * do not pass the receiver. Member handles are resolved and adapted once, when the binder is
+ * created, and shared by every bound proxy. Binding a receiver only allocates a small invocation
+ * handler holding it and a {@link Proxy} instance, independent of the number of members.</p>
+ *
+ * @param <I> interface type
+ * @see ReflectionProxyFactory#reflectionProxyBinder(Class)
+ */
+@DefaultQualifier(NonNull.class)
+public final class ReflectionProxyBinder<I> {
+  private final ClassLoader classLoader;
+  private final ReflectionProxyInvocationHandler<I> handler;
+
+  ReflectionProxyBinder(final ClassLoader classLoader, final ReflectionProxyInvocationHandler<I> handler) {
+    this.classLoader = classLoader;
+    this.handler = handler;
+  }
+
+  /**
+   * Create a new instance of the reflection proxy interface bound to the given receiver.
+   *
+   * @param receiver receiver, an instance of the proxied class
+   * @return bound reflection proxy instance
+   * @throws IllegalArgumentException when the receiver is not an instance of the proxied class
+   */
+  @SuppressWarnings("unchecked")
+  public I bind(final Object receiver) {
+    Objects.requireNonNull(receiver, "receiver");
+    return (I) Proxy.newProxyInstance(
+      this.classLoader,
+      new Class<?>[]{this.handler.interfaceClass()},
+      this.handler.bind(receiver)
+    );
+  }
+}
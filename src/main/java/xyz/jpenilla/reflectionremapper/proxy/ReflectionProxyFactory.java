@@ -17,10 +17,21 @@
  */
 package xyz.jpenilla.reflectionremapper.proxy;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 import xyz.jpenilla.reflectionremapper.ReflectionRemapper;
+import xyz.jpenilla.reflectionremapper.internal.util.ClassResolver;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
 
 /**
@@ -28,12 +39,39 @@ import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
  */
 @DefaultQualifier(NonNull.class)
 public final class ReflectionProxyFactory {
-  private final ReflectionRemapper reflectionRemapper;
+  private final CompletableFuture<ReflectionRemapper> reflectionRemapper;
   private final ClassLoader classLoader;
+  private final ClassResolver classResolver;
+  private final @Nullable ReflectionProxyMetrics metrics;
+  private final @Nullable Executor warmUpExecutor;
+  private final BiConsumer<Class<?>, Throwable> warmUpFailureHandler;
+  private final LongAdder proxyCount = new LongAdder();
+  private final LongAdder methodCount = new LongAdder();
+  private final LongAdder fieldAccessorCount = new LongAdder();
+  private final LongAdder resolutionTime = new LongAdder();
+  private final LongAdder retainedBytes = new LongAdder();
+  // handlers backing methodHandle, which are neither instrumented nor warmed up
+  private final ClassValue<ReflectionProxyInvocationHandler<?>> methodHandleHandlers = new ClassValue<ReflectionProxyInvocationHandler<?>>() {
+    @Override
+    protected ReflectionProxyInvocationHandler<?> computeValue(final Class<?> type) {
+      return ReflectionProxyFactory.this.resolve(type, false, null);
+    }
+  };
 
-  private ReflectionProxyFactory(final ReflectionRemapper reflectionRemapper, final ClassLoader classLoader) {
+  private ReflectionProxyFactory(
+    final CompletableFuture<ReflectionRemapper> reflectionRemapper,
+    final ClassLoader classLoader,
+    final ClassResolver classResolver,
+    final @Nullable ReflectionProxyMetrics metrics,
+    final @Nullable Executor warmUpExecutor,
+    final BiConsumer<Class<?>, Throwable> warmUpFailureHandler
+  ) {
     this.reflectionRemapper = reflectionRemapper;
     this.classLoader = classLoader;
+    this.classResolver = classResolver;
+    this.metrics = metrics;
+    this.warmUpExecutor = warmUpExecutor;
+    this.warmUpFailureHandler = warmUpFailureHandler;
   }
 
   /**
@@ -43,6 +81,7 @@ public final class ReflectionProxyFactory {
    * @param <I>            interface type
    * @return reflection proxy instance
    * @throws IllegalArgumentException when the specified proxy interface is malformed or invalid for the current environment
+   * @throws java.util.concurrent.CompletionException when this factory's {@link ReflectionRemapper} failed to load
    * @see Proxies
    */
   @SuppressWarnings("unchecked")
@@ -50,10 +89,219 @@ public final class ReflectionProxyFactory {
     return (I) Proxy.newProxyInstance(
       this.classLoader,
       new Class<?>[]{proxyInterface},
-      new ReflectionProxyInvocationHandler<>(
-        proxyInterface,
-        this.reflectionRemapper
-      )
+      this.handler(proxyInterface, false)
+    );
+  }
+
+  /**
+   * Create a new instance of the given "reflection proxy interface" once this factory's
+   * {@link ReflectionRemapper} has loaded.
+   *
+   * <p>The proxy is resolved on the thread completing the remapper's future, or on the calling
+   * thread when it has already completed. Unlike {@link #reflectionProxy(Class)}, this does not block.</p>
+   *
+   * @param proxyInterface reflection proxy interface class
+   * @param <I>            interface type
+   * @return future reflection proxy instance, completed exceptionally when the remapper failed to
+   *     load or the proxy interface is invalid
+   * @see #create(CompletableFuture, ClassLoader)
+   */
+  public <I> CompletableFuture<I> reflectionProxyAsync(final Class<I> proxyInterface) {
+    return this.reflectionRemapper.thenApply(remapper -> this.reflectionProxy(proxyInterface));
+  }
+
+  /**
+   * Create a new {@link ReflectionProxyBinder} for the given receiver-bound "reflection proxy interface".
+   *
+   * <p>Receiver-bound proxy interfaces are declared like any other reflection proxy interface, except
+   * that non-{@link xyz.jpenilla.reflectionremapper.proxy.annotation.Static static} methods do not
+   * declare the receiver as their first parameter. Instead, the receiver is given to
+   * {@link ReflectionProxyBinder#bind(Object)} and bound into the proxy's method handles.</p>
+   *
+   * <p>Like proxy instances, the returned binder does not hold a reference to this factory's
+   * {@link ReflectionRemapper}, and is safe to keep for binding receivers later.</p>
+   *
+   * @param proxyInterface receiver-bound reflection proxy interface class
+   * @param <I>            interface type
+   * @return reflection proxy binder
+   * @throws IllegalArgumentException when the specified proxy interface is malformed or invalid for the current environment
+   * @see Proxies
+   */
+  public <I> ReflectionProxyBinder<I> reflectionProxyBinder(final Class<I> proxyInterface) {
+    return new ReflectionProxyBinder<>(this.classLoader, this.handler(proxyInterface, true));
+  }
+
+  /**
+   * Returns the resolved method handle behind a method of the given "reflection proxy interface".
+   *
+   * <p>Unlike calls through a proxy instance, the handle is typed exactly as the proxy method is
+   * declared, with primitives unboxed and no argument array. Instance members take the receiver
+   * first, like the proxy method. This allows keeping the handle in a {@code static final} field
+   * and calling it with {@link MethodHandle#invokeExact(Object...)}, which the JIT can inline fully.</p>
+   *
+   * <p>This works for every proxy method except default methods, including
+   * {@link xyz.jpenilla.reflectionremapper.proxy.annotation.FieldGetter field getters} and
+   * {@link xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSetter setters}. The interface must
+   * not be receiver-bound. Handles are not instrumented with {@link #withMetrics(ReflectionProxyMetrics) metrics}.</p>
+   *
+   * <p>Each proxy interface is resolved once per factory, on the first call for any of its methods.</p>
+   *
+   * @param proxyInterface reflection proxy interface class
+   * @param methodName     proxy method name
+   * @param parameterTypes proxy method parameter types
+   * @return method handle
+   * @throws IllegalArgumentException when the method does not exist or is a default method, or the
+   *     proxy interface is malformed or invalid for the current environment
+   */
+  public MethodHandle methodHandle(final Class<?> proxyInterface, final String methodName, final Class<?>... parameterTypes) {
+    final Method method;
+    try {
+      method = proxyInterface.getMethod(methodName, parameterTypes);
+    } catch (final NoSuchMethodException ex) {
+      throw new IllegalArgumentException("Reflection proxy " + proxyInterface.getTypeName() + " has no method " + methodName + Arrays.toString(parameterTypes), ex);
+    }
+    return this.methodHandleHandlers.get(proxyInterface).memberHandle(method);
+  }
+
+  private <I> ReflectionProxyInvocationHandler<I> handler(final Class<I> proxyInterface, final boolean bound) {
+    final ReflectionProxyInvocationHandler<I> handler = this.resolve(proxyInterface, bound, this.metrics);
+    if (this.warmUpExecutor != null) {
+      CompletableFuture.runAsync(handler::warmUp, this.warmUpExecutor).whenComplete((result, failure) -> {
+        if (failure != null) {
+          this.warmUpFailureHandler.accept(proxyInterface, failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+        }
+      });
+    }
+    return handler;
+  }
+
+  private <I> ReflectionProxyInvocationHandler<I> resolve(final Class<I> proxyInterface, final boolean bound, final @Nullable ReflectionProxyMetrics metrics) {
+    final ReflectionRemapper remapper = this.reflectionRemapper.join();
+    final long start = System.nanoTime();
+    final ReflectionProxyInvocationHandler<I> handler = new ReflectionProxyInvocationHandler<>(
+      proxyInterface,
+      remapper,
+      this.classResolver,
+      bound,
+      metrics
+    );
+    this.resolutionTime.add(System.nanoTime() - start);
+    this.proxyCount.increment();
+    this.methodCount.add(handler.methodCount());
+    this.fieldAccessorCount.add(handler.fieldAccessorCount());
+    this.retainedBytes.add(handler.estimateRetainedBytes());
+    return handler;
+  }
+
+  /**
+   * Load a class by its Mojang-mapped name, using this factory's {@link ReflectionRemapper}
+   * and {@link ClassLoader}.
+   *
+   * <p>The class is not initialized. Resolved classes are cached, and shared with the proxies
+   * created by this factory, so each class named by {@link Proxies#className()} or
+   * {@link xyz.jpenilla.reflectionremapper.proxy.annotation.Type#className()} is only loaded once
+   * per class loader.</p>
+   *
+   * @param className fully qualified, Mojang-mapped class name, or array descriptor
+   * @return class
+   * @throws ClassNotFoundException when the class could not be found
+   */
+  public Class<?> resolveClass(final String className) throws ClassNotFoundException {
+    return this.classResolver.resolve(className, this.classLoader);
+  }
+
+  /**
+   * Create a new {@link ReflectionProxyFactory} using this factory's {@link ReflectionRemapper}
+   * and {@link ClassLoader}, whose proxies record per-method invocation metrics to the given
+   * {@link ReflectionProxyMetrics}.
+   *
+   * <p>Proxies created by this factory are not affected, and do not pay for instrumentation.</p>
+   *
+   * @param metrics metrics to record to
+   * @return new {@link ReflectionProxyFactory}
+   */
+  public ReflectionProxyFactory withMetrics(final ReflectionProxyMetrics metrics) {
+    return new ReflectionProxyFactory(this.reflectionRemapper, this.classLoader, this.classResolver, metrics, this.warmUpExecutor, this.warmUpFailureHandler);
+  }
+
+  /**
+   * Create a new {@link ReflectionProxyFactory} using this factory's {@link ReflectionRemapper}
+   * and {@link ClassLoader}, which warms up each proxy and binder it creates on the given executor.
+   *
+   * <p>See {@link #warmUp(Object, Executor)}. Proxies are usable immediately, calls made before their
+   * warm-up completes link on the calling thread as usual.</p>
+   *
+   * <p>Warm-up failures are passed to the uncaught exception handler of the thread which warmed up,
+   * see {@link #withWarmUp(Executor, BiConsumer)} to handle them instead.</p>
+   *
+   * @param executor executor to warm up proxies on
+   * @return new {@link ReflectionProxyFactory}
+   */
+  public ReflectionProxyFactory withWarmUp(final Executor executor) {
+    return this.withWarmUp(executor, ReflectionProxyFactory::reportWarmUpFailure);
+  }
+
+  /**
+   * Create a new {@link ReflectionProxyFactory} using this factory's {@link ReflectionRemapper}
+   * and {@link ClassLoader}, which warms up each proxy and binder it creates on the given executor,
+   * and passes warm-up failures to the given handler.
+   *
+   * <p>See {@link #withWarmUp(Executor)}. The handler is called on the thread which warmed up, with
+   * the proxy interface and the exception warm-up failed with.</p>
+   *
+   * @param executor       executor to warm up proxies on
+   * @param failureHandler handler for warm-up failures
+   * @return new {@link ReflectionProxyFactory}
+   */
+  public ReflectionProxyFactory withWarmUp(final Executor executor, final BiConsumer<Class<?>, Throwable> failureHandler) {
+    return new ReflectionProxyFactory(this.reflectionRemapper, this.classLoader, this.classResolver, this.metrics, executor, failureHandler);
+  }
+
+  private static void reportWarmUpFailure(final Class<?> proxyInterface, final Throwable failure) {
+    final Thread thread = Thread.currentThread();
+    thread.getUncaughtExceptionHandler().uncaughtException(
+      thread,
+      new IllegalStateException("Failed to warm up reflection proxy " + proxyInterface.getTypeName(), failure)
+    );
+  }
+
+  /**
+   * Links every dispatch path of the given reflection proxy on the given executor, so that the
+   * first call of each proxy method does not pay for method handle linking.
+   *
+   * <p>Warming up does not invoke the proxied members, nor the proxy interface's default methods.
+   * For receiver-bound proxies, warming up any proxy of a {@link ReflectionProxyBinder} also warms
+   * up the others.</p>
+   *
+   * <p>The proxy's adapters and dispatch call sites are linked and compiled ahead of time. The first
+   * call of each member still initializes the proxied class when needed, and the JIT compiles the
+   * real call path as it is used.</p>
+   *
+   * @param proxy    reflection proxy instance
+   * @param executor executor to warm up on, i.e. a background thread pool
+   * @return future completed when the proxy has been warmed up
+   * @throws IllegalArgumentException when the given object is not a reflection proxy
+   */
+  public static CompletableFuture<Void> warmUp(final Object proxy, final Executor executor) {
+    final @Nullable InvocationHandler handler = Proxy.isProxyClass(proxy.getClass()) ? Proxy.getInvocationHandler(proxy) : null;
+    if (!(handler instanceof ReflectionProxyInvocationHandler)) {
+      throw new IllegalArgumentException("Not a reflection proxy: " + proxy.getClass().getTypeName());
+    }
+    return CompletableFuture.runAsync(((ReflectionProxyInvocationHandler<?>) handler)::warmUp, executor);
+  }
+
+  /**
+   * Returns a snapshot of statistics for the reflection proxies created by this factory.
+   *
+   * @return factory statistics
+   */
+  public ReflectionProxyFactoryStats stats() {
+    return new ReflectionProxyFactoryStats(
+      this.proxyCount.sum(),
+      this.methodCount.sum(),
+      this.fieldAccessorCount.sum(),
+      this.retainedBytes.sum(),
+      this.resolutionTime.sum()
     );
   }
 
@@ -70,6 +318,32 @@ public final class ReflectionProxyFactory {
     final ReflectionRemapper reflectionRemapper,
     final ClassLoader classLoader
   ) {
-    return new ReflectionProxyFactory(reflectionRemapper, classLoader);
+    return create(CompletableFuture.completedFuture(reflectionRemapper), classLoader);
+  }
+
+  /**
+   * Create a new {@link ReflectionProxyFactory} using the {@link ReflectionRemapper} of the given
+   * future for remapping, and the specified {@link ClassLoader} to load reflection proxy
+   * implementation classes.
+   *
+   * <p>Proxies may be requested before the future completes, see {@link #reflectionProxyAsync(Class)}.
+   * Blocking methods such as {@link #reflectionProxy(Class)} wait for it to complete.</p>
+   *
+   * @param reflectionRemapper future reflection remapper, i.e. from {@link ReflectionRemapper#forReobfMappingsInPaperJarAsync()}
+   * @param classLoader        classloader
+   * @return new {@link ReflectionProxyFactory}
+   */
+  public static ReflectionProxyFactory create(
+    final CompletableFuture<ReflectionRemapper> reflectionRemapper,
+    final ClassLoader classLoader
+  ) {
+    return new ReflectionProxyFactory(
+      reflectionRemapper,
+      classLoader,
+      new ClassResolver(name -> reflectionRemapper.join().remapClassOrArrayName(name)),
+      null,
+      null,
+      ReflectionProxyFactory::reportWarmUpFailure
+    );
   }
 }
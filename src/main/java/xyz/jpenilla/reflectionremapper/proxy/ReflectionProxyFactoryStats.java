@@ -0,0 +1,111 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Statistics describing the reflection proxies created by a {@link ReflectionProxyFactory}.
+ *
+ * @see ReflectionProxyFactory#stats()
+ */
+@DefaultQualifier(NonNull.class)
+public final class ReflectionProxyFactoryStats {
+  private final long proxyCount;
+  private final long methodCount;
+  private final long fieldAccessorCount;
+  private final long estimatedRetainedBytes;
+  private final long resolutionTimeNanos;
+
+  ReflectionProxyFactoryStats(
+    final long proxyCount,
+    final long methodCount,
+    final long fieldAccessorCount,
+    final long estimatedRetainedBytes,
+    final long resolutionTimeNanos
+  ) {
+    this.proxyCount = proxyCount;
+    this.methodCount = methodCount;
+    this.fieldAccessorCount = fieldAccessorCount;
+    this.estimatedRetainedBytes = estimatedRetainedBytes;
+    this.resolutionTimeNanos = resolutionTimeNanos;
+  }
+
+  /**
+   * Returns the number of reflection proxy interfaces resolved, either to create a proxy,
+   * a {@link ReflectionProxyBinder}, or the {@link ReflectionProxyFactory#methodHandle method handles}
+   * of an interface.
+   *
+   * @return proxy count
+   */
+  public long proxyCount() {
+    return this.proxyCount;
+  }
+
+  /**
+   * Returns the number of method and constructor invokers resolved, across all proxies.
+   *
+   * @return method count
+   */
+  public long methodCount() {
+    return this.methodCount;
+  }
+
+  /**
+   * Returns the number of field getters and setters resolved, across all proxies.
+   *
+   * @return field accessor count
+   */
+  public long fieldAccessorCount() {
+    return this.fieldAccessorCount;
+  }
+
+  /**
+   * Returns an estimate of the heap retained by the lookup tables of the resolved proxies, in bytes.
+   *
+   * <p>The estimate assumes a 64-bit JVM with compressed oops, and does not include method handles
+   * or reflective members, whose size depends on the JDK. Tables created when
+   * {@link ReflectionProxyBinder binding} proxies are not included.</p>
+   *
+   * @return estimated retained bytes
+   */
+  public long estimatedRetainedBytes() {
+    return this.estimatedRetainedBytes;
+  }
+
+  /**
+   * Returns the total time spent resolving proxy interfaces against their proxied classes,
+   * in nanoseconds. Time spent waiting for the mappings of the factory to load is not included.
+   *
+   * @return resolution time
+   */
+  public long resolutionTimeNanos() {
+    return this.resolutionTimeNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "ReflectionProxyFactoryStats[" +
+      "proxyCount=" + this.proxyCount + ", " +
+      "methodCount=" + this.methodCount + ", " +
+      "fieldAccessorCount=" + this.fieldAccessorCount + ", " +
+      "estimatedRetainedBytes=" + this.estimatedRetainedBytes + ", " +
+      "resolutionTimeNanos=" + this.resolutionTimeNanos + ']';
+  }
+}
@@ -20,23 +20,38 @@ package xyz.jpenilla.reflectionremapper.proxy;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import xyz.jpenilla.reflectionremapper.ReflectionRemapper;
+import xyz.jpenilla.reflectionremapper.internal.jfr.Events;
+import xyz.jpenilla.reflectionremapper.internal.util.ClassResolver;
+import xyz.jpenilla.reflectionremapper.internal.util.Footprint;
+import xyz.jpenilla.reflectionremapper.internal.util.MemberIndex;
 import xyz.jpenilla.reflectionremapper.internal.util.Util;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.BatchInvoker;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.ConstructorInvoker;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Descriptor;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldGetter;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSnapshot;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.MethodName;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.Static;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.Type;
@@ -44,22 +59,283 @@ import xyz.jpenilla.reflectionremapper.proxy.annotation.Type;
 import static xyz.jpenilla.reflectionremapper.internal.util.Util.handleForDefaultMethod;
 
 final class ReflectionProxyInvocationHandler<I> implements InvocationHandler {
-  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
   private static final Object[] EMPTY_OBJECT_ARRAY = new Object[]{};
+  static final int MAX_EXACT_ARITY = 3;
+  private static final int WARM_UP_INVOCATIONS = 64; // above the JDK 8 LambdaForm compile threshold
+  // 9 references, a boolean and 2 ints
+  private static final long HANDLER_BYTES = Footprint.align(Footprint.OBJECT_HEADER_BYTES + 9 * Footprint.REFERENCE_BYTES + 1 + 2 * Integer.BYTES);
+  private static final MethodHandle NOOP;
+
+  static {
+    try {
+      NOOP = MethodHandles.lookup().findStatic(ReflectionProxyInvocationHandler.class, "noop", MethodType.methodType(void.class));
+    } catch (final ReflectiveOperationException ex) {
+      throw new ExceptionInInitializerError(ex);
+    }
+  }
+
   private final Class<I> interfaceClass;
-  private final Map<Method, MethodHandle> methods = new HashMap<>();
-  private final Map<Method, MethodHandle> getters = new HashMap<>();
-  private final Map<Method, MethodHandle> setters = new HashMap<>();
-  private final Map<Method, MethodHandle> staticGetters = new HashMap<>();
-  private final Map<Method, MethodHandle> staticSetters = new HashMap<>();
-  private final Map<Method, MethodHandle> defaultMethods = new ConcurrentHashMap<>(); // CHM as it's lazily populated
+  private final boolean bound;
+  private final Map<Method, MethodHandle> members; // resolved handles with their natural types, instance members take the receiver first
+  private final Set<Method> instanceMembers;
+  private final Map<Method, MethodHandle> methods; // members adapted for dispatch
+  private final Map<Method, MethodHandle> receiverMethods; // bound instance members adapted for dispatch, taking the receiver first
+  private final @Nullable Object receiver;
+  private final Map<Method, MethodHandle> defaultMethods; // adapted for dispatch, taking the proxy first
+  private final @Nullable ReflectionProxyMetrics metrics;
+  private Class<?> proxiedClass = Object.class;
+  private int methodCount;
+  private int fieldAccessorCount;
+
+  /**
+   * Creates a handler for the given proxy interface, resolving its members.
+   *
+   * <p>When {@code bound} is {@code true}, instance members of the interface do not declare a
+   * receiver parameter, and the handler can only be used through {@link #bind(Object)}.</p>
+   *
+   * @param interfaceClass     proxy interface
+   * @param reflectionRemapper reflection remapper
+   * @param classResolver      resolver for classes named by the interface
+   * @param bound              whether the interface is receiver-bound
+   * @param metrics            metrics to instrument dispatch with, or {@code null}
+   */
+  ReflectionProxyInvocationHandler(
+    final Class<I> interfaceClass,
+    final ReflectionRemapper reflectionRemapper,
+    final ClassResolver classResolver,
+    final boolean bound,
+    final @Nullable ReflectionProxyMetrics metrics
+  ) {
+    this(interfaceClass, reflectionRemapper, classResolver, bound, metrics, null);
+  }
 
+  /**
+   * Creates a handler for the given proxy interface, resolving its members.
+   *
+   * <p>When {@code problems} is not {@code null}, members which fail to resolve are reported to it
+   * and skipped, instead of failing the whole interface.</p>
+   *
+   * @param interfaceClass     proxy interface
+   * @param reflectionRemapper reflection remapper
+   * @param classResolver      resolver for classes named by the interface
+   * @param bound              whether the interface is receiver-bound
+   * @param metrics            metrics to instrument dispatch with, or {@code null}
+   * @param problems           resolution problem sink, or {@code null} to throw
+   */
   ReflectionProxyInvocationHandler(
     final Class<I> interfaceClass,
-    final ReflectionRemapper reflectionRemapper
+    final ReflectionRemapper reflectionRemapper,
+    final ClassResolver classResolver,
+    final boolean bound,
+    final @Nullable ReflectionProxyMetrics metrics,
+    final @Nullable Consumer<ReflectionProxyVerifier.Problem> problems
   ) {
     this.interfaceClass = interfaceClass;
-    this.scanInterface(reflectionRemapper);
+    this.bound = bound;
+    this.metrics = metrics;
+    final Map<Method, MethodHandle> members = new HashMap<>();
+    final Set<Method> instanceMembers = new HashSet<>();
+    this.scanInterface(reflectionRemapper, classResolver, members, instanceMembers, problems);
+    this.members = Collections.unmodifiableMap(members);
+    this.instanceMembers = Collections.unmodifiableSet(instanceMembers);
+    this.receiver = null;
+    this.methods = this.link(false);
+    this.receiverMethods = bound ? this.link(true) : Collections.emptyMap();
+    this.defaultMethods = this.linkDefaultMethods(problems);
+  }
+
+  private ReflectionProxyInvocationHandler(
+    final ReflectionProxyInvocationHandler<I> template,
+    final Object receiver
+  ) {
+    this.interfaceClass = template.interfaceClass;
+    this.bound = true;
+    this.metrics = template.metrics;
+    this.members = template.members;
+    this.instanceMembers = template.instanceMembers;
+    this.proxiedClass = template.proxiedClass;
+    this.methodCount = template.methodCount;
+    this.fieldAccessorCount = template.fieldAccessorCount;
+    this.receiver = receiver;
+    this.methods = template.methods;
+    this.receiverMethods = template.receiverMethods;
+    this.defaultMethods = template.defaultMethods;
+  }
+
+  /**
+   * Creates a handler for a receiver-bound proxy, sharing this handler's resolved members.
+   *
+   * @param receiver receiver to bind instance members to
+   * @return bound handler
+   */
+  ReflectionProxyInvocationHandler<I> bind(final Object receiver) {
+    if (!this.bound) {
+      throw new IllegalStateException("Handler for " + this.interfaceClass.getTypeName() + " is not receiver-bound.");
+    }
+    if (!this.proxiedClass.isInstance(receiver)) {
+      throw new IllegalArgumentException("Cannot bind reflection proxy " + this.interfaceClass.getTypeName() + " to receiver of type "
+        + receiver.getClass().getTypeName() + ", expected an instance of " + this.proxiedClass.getTypeName());
+    }
+    return new ReflectionProxyInvocationHandler<>(this, receiver);
+  }
+
+  /**
+   * Adapts resolved members for dispatch.
+   *
+   * <p>For receiver-bound handlers, instance members are adapted once with the receiver as their leading
+   * parameter, and dispatched with {@link #dispatchLeading(MethodHandle, Object, Object[])}, so binding
+   * a receiver does not relink them. Other members are dispatched with {@link #dispatch(MethodHandle, Object[])}.</p>
+   *
+   * @param receiverMembers whether to adapt the receiver-bound instance members, or all other members
+   * @return dispatch handles
+   */
+  private Map<Method, MethodHandle> link(final boolean receiverMembers) {
+    final Map<Method, MethodHandle> linked = new HashMap<>();
+    for (final Map.Entry<Method, MethodHandle> entry : this.members.entrySet()) {
+      final boolean receiverMember = this.bound && this.instanceMembers.contains(entry.getKey());
+      if (receiverMember != receiverMembers) {
+        continue;
+      }
+      linked.put(entry.getKey(), dispatchHandle(entry.getKey(), entry.getValue(), receiverMember, this.metrics));
+    }
+    return Collections.unmodifiableMap(linked);
+  }
+
+  /**
+   * Resolves the handles of the interface's default methods.
+   *
+   * <p>Default method handles take the proxy instance as their first parameter rather than having
+   * it bound, so they are shared by every proxy of this handler, including receiver-bound ones.</p>
+   *
+   * @param problems resolution problem sink, or {@code null} to throw
+   * @return default method handles, adapted for {@link #dispatchLeading(MethodHandle, Object, Object[])}
+   */
+  private Map<Method, MethodHandle> linkDefaultMethods(final @Nullable Consumer<ReflectionProxyVerifier.Problem> problems) {
+    final Map<Method, MethodHandle> linked = new HashMap<>();
+    for (final Method method : this.interfaceClass.getMethods()) {
+      if (!method.isDefault()) {
+        continue;
+      }
+      try {
+        final MethodHandle handle = Util.sneakyThrows(() -> handleForDefaultMethod(this.interfaceClass, method));
+        linked.put(method, dispatchHandle(method, handle, true, this.metrics));
+      } catch (final RuntimeException | LinkageError ex) {
+        if (problems == null) {
+          throw ex;
+        }
+        problems.accept(new ReflectionProxyVerifier.Problem(this.interfaceClass, method, ex));
+      }
+    }
+    return Collections.unmodifiableMap(linked);
+  }
+
+  /**
+   * Returns the resolved handle of the given proxy interface method, typed as the method is declared.
+   *
+   * @param method proxy interface method
+   * @return member handle
+   * @throws IllegalArgumentException when the method is not a resolved member, i.e. a default method
+   */
+  MethodHandle memberHandle(final Method method) {
+    final @Nullable MethodHandle handle = this.members.get(method);
+    if (handle == null) {
+      throw new IllegalArgumentException("Method " + method.getName() + " is not a resolved member of reflection proxy " + this.interfaceClass.getTypeName());
+    }
+    return handle.asType(MethodType.methodType(method.getReturnType(), method.getParameterTypes()));
+  }
+
+  /**
+   * Links the dispatch paths of this handler ahead of their first call, without invoking any
+   * proxied member or default method.
+   *
+   * <p>Each path is rebuilt as {@link #link(boolean)} and {@link #linkDefaultMethods(Consumer)} built
+   * it, through the same adapters, instrumentation when enabled, and dispatch call site, but around a
+   * stand-in of the real member handle's type which returns a zero value. It is then dispatched a
+   * number of times. Adapter and invoker LambdaForms are shared by handles of the same type, so this
+   * spins, links and compiles the forms the real dispatch handles use. A rebuilt path whose type does
+   * not match the linked handle fails the warm-up, rather than warming up a different path.</p>
+   *
+   * <p>What can't be done without invoking the member stays on its first call: initializing the
+   * proxied class for static members and constructors, the member's own direct method handle form
+   * when no other handle of its kind and type has used it, and profiling and JIT compilation of the
+   * real path.</p>
+   */
+  void warmUp() {
+    final @Nullable ReflectionProxyMetrics warmUpMetrics = this.metrics == null ? null : ReflectionProxyMetrics.create();
+    for (final Map.Entry<Method, MethodHandle> entry : this.members.entrySet()) {
+      final Method method = entry.getKey();
+      final MethodType type = entry.getValue().type();
+      final @Nullable MethodHandle receiverLinked = this.receiverMethods.get(method);
+      if (receiverLinked != null) {
+        final MethodHandle dispatched = warmUpHandle(method, type, receiverLinked, true, warmUpMetrics);
+        final Object[] args = zeroArguments(type, 1);
+        for (int i = 0; i < WARM_UP_INVOCATIONS; i++) {
+          Util.sneakyThrows(() -> dispatchLeading(dispatched, null, args));
+        }
+      } else {
+        final MethodHandle dispatched = warmUpHandle(method, type, this.methods.get(method), false, warmUpMetrics);
+        final Object[] args = zeroArguments(type, 0);
+        for (int i = 0; i < WARM_UP_INVOCATIONS; i++) {
+          Util.sneakyThrows(() -> dispatch(dispatched, args));
+        }
+      }
+    }
+    for (final Map.Entry<Method, MethodHandle> entry : this.defaultMethods.entrySet()) {
+      final Method method = entry.getKey();
+      final MethodType type = MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+        .insertParameterTypes(0, this.interfaceClass);
+      final MethodHandle dispatched = warmUpHandle(method, type, entry.getValue(), true, warmUpMetrics);
+      final Object[] args = zeroArguments(type, 1);
+      for (int i = 0; i < WARM_UP_INVOCATIONS; i++) {
+        Util.sneakyThrows(() -> dispatchLeading(dispatched, null, args));
+      }
+    }
+  }
+
+  private static MethodHandle dispatchHandle(
+    final Method method,
+    final MethodHandle handle,
+    final boolean leading,
+    final @Nullable ReflectionProxyMetrics metrics
+  ) {
+    final MethodHandle adapted = leading ? adaptLeading(handle) : adapt(handle);
+    return metrics == null ? adapted : metrics.instrument(method, adapted);
+  }
+
+  private static MethodHandle warmUpHandle(
+    final Method method,
+    final MethodType type,
+    final MethodHandle linked,
+    final boolean leading,
+    final @Nullable ReflectionProxyMetrics metrics
+  ) {
+    final MethodHandle handle = dispatchHandle(method, standIn(type), leading, metrics);
+    if (!handle.type().equals(linked.type())) {
+      throw new IllegalStateException("Warm-up path " + handle.type() + " of " + method + " does not match its linked handle " + linked.type());
+    }
+    return handle;
+  }
+
+  private static MethodHandle standIn(final MethodType type) {
+    final MethodHandle result = type.returnType() == void.class
+      ? NOOP
+      : MethodHandles.constant(type.returnType(), zero(type.returnType()));
+    return MethodHandles.dropArguments(result, 0, type.parameterList());
+  }
+
+  private static Object[] zeroArguments(final MethodType type, final int skip) {
+    final Object[] args = new Object[type.parameterCount() - skip];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = zero(type.parameterType(i + skip));
+    }
+    return args;
+  }
+
+  private static @Nullable Object zero(final Class<?> type) {
+    return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+  }
+
+  private static void noop() {
   }
 
   @Override
@@ -81,166 +357,329 @@ final class ReflectionProxyInvocationHandler<I> implements InvocationHandler {
     }
 
     if (method.isDefault()) {
-      return this.handleDefaultMethod(proxy, method, args);
+      final @Nullable MethodHandle defaultHandle = this.defaultMethods.get(method);
+      if (defaultHandle != null) {
+        return dispatchLeading(defaultHandle, proxy, args);
+      }
+      throw new IllegalStateException();
     }
 
-    // Method or constructor
+    // Method, constructor, or field accessor
     final @Nullable MethodHandle methodHandle = this.methods.get(method);
     if (methodHandle != null) {
-      if (args.length == 0) {
-        return methodHandle.invokeExact();
-      }
-      return methodHandle.invokeExact(args);
+      return dispatch(methodHandle, args);
     }
-
-    // Getter
-    final @Nullable MethodHandle getter = this.getters.get(method);
-    if (getter != null) {
-      return getter.invokeExact(args[0]);
+    final @Nullable MethodHandle receiverHandle = this.receiverMethods.get(method);
+    if (receiverHandle != null) {
+      return dispatchLeading(receiverHandle, this.receiver, args);
     }
 
-    // Setter
-    final @Nullable MethodHandle setter = this.setters.get(method);
-    if (setter != null) {
-      return setter.invokeExact(args[0], args[1]);
-    }
+    // ?
+    throw new IllegalStateException();
+  }
 
-    // Static getter
-    final @Nullable MethodHandle staticGetter = this.staticGetters.get(method);
-    if (staticGetter != null) {
-      return staticGetter.invokeExact();
+  private static @Nullable Object dispatch(final MethodHandle handle, final Object[] args) throws Throwable {
+    switch (args.length) {
+      case 0:
+        return handle.invokeExact();
+      case 1:
+        return handle.invokeExact(args[0]);
+      case 2:
+        return handle.invokeExact(args[0], args[1]);
+      case 3:
+        return handle.invokeExact(args[0], args[1], args[2]);
+      default:
+        return handle.invokeExact(args);
     }
+  }
 
-    // Static setter
-    final @Nullable MethodHandle staticSetter = this.staticSetters.get(method);
-    if (staticSetter != null) {
-      return staticSetter.invokeExact(args[0]);
+  private static @Nullable Object dispatchLeading(final MethodHandle handle, final @Nullable Object leading, final Object[] args) throws Throwable {
+    switch (args.length) {
+      case 0:
+        return handle.invokeExact(leading);
+      case 1:
+        return handle.invokeExact(leading, args[0]);
+      case 2:
+        return handle.invokeExact(leading, args[0], args[1]);
+      default:
+        return handle.invokeExact(leading, args);
     }
-
-    // ?
-    throw new IllegalStateException();
   }
 
-  private @Nullable Object handleDefaultMethod(
-    final Object proxy,
-    final Method method,
-    final Object[] args
-  ) throws Throwable {
-    final MethodHandle handle = this.defaultMethods.computeIfAbsent(
-      method,
-      m -> adapt(Util.sneakyThrows(() -> handleForDefaultMethod(this.interfaceClass, m)).bindTo(proxy))
-    );
+  Class<I> interfaceClass() {
+    return this.interfaceClass;
+  }
 
-    if (args.length == 0) {
-      return handle.invokeExact();
-    } else {
-      return handle.invokeExact(args);
+  /**
+   * Estimates the heap retained by this handler's own tables, in bytes.
+   *
+   * <p>Method handles and reflective members are not counted, as much of them is shared with the
+   * JDK's caches, and their size depends on the JDK.</p>
+   *
+   * @return retained bytes estimate
+   */
+  long estimateRetainedBytes() {
+    long bytes = HANDLER_BYTES;
+    bytes += Footprint.UNMODIFIABLE_MAP_BYTES + Footprint.hashMapBytes(this.members.size());
+    bytes += Footprint.UNMODIFIABLE_SET_BYTES + Footprint.HASH_SET_BYTES + Footprint.hashMapBytes(this.instanceMembers.size());
+    bytes += Footprint.UNMODIFIABLE_MAP_BYTES + Footprint.hashMapBytes(this.methods.size());
+    if (this.bound) {
+      bytes += Footprint.UNMODIFIABLE_MAP_BYTES + Footprint.hashMapBytes(this.receiverMethods.size());
     }
+    bytes += Footprint.UNMODIFIABLE_MAP_BYTES + Footprint.hashMapBytes(this.defaultMethods.size());
+    return bytes;
+  }
+
+  int methodCount() {
+    return this.methodCount;
+  }
+
+  int fieldAccessorCount() {
+    return this.fieldAccessorCount;
   }
 
-  private void scanInterface(final ReflectionRemapper reflectionRemapper) {
+  private void scanInterface(
+    final ReflectionRemapper reflectionRemapper,
+    final ClassResolver classResolver,
+    final Map<Method, MethodHandle> members,
+    final Set<Method> instanceMembers,
+    final @Nullable Consumer<ReflectionProxyVerifier.Problem> problems
+  ) {
     Class<?> prevProxy = null;
     Class<?> prevProxied = null;
 
     for (final Class<?> cls : Util.topDownInterfaceHierarchy(this.interfaceClass)) {
-      final Class<?> proxied = Util.findProxiedClass(cls, reflectionRemapper::remapClassName);
+      final Class<?> proxied;
+      try {
+        proxied = Util.findProxiedClass(cls, classResolver);
+
+        if (prevProxied != null && !prevProxied.isAssignableFrom(proxied)) {
+          throw new IllegalArgumentException(
+            "Reflection proxy interface " + cls.getName() + " proxies " + proxied.getName() + ", and extends from reflection proxy interface "
+              + prevProxy.getName() + " which proxies " + prevProxied.getName() + ", but the proxied types are not compatible."
+          );
+        }
+      } catch (final RuntimeException | LinkageError ex) {
+        if (problems == null) {
+          throw ex;
+        }
+        // members of this interface can't be resolved without its proxied class
+        problems.accept(new ReflectionProxyVerifier.Problem(cls, null, ex));
+        continue;
+      }
 
-      if (prevProxied != null && !prevProxied.isAssignableFrom(proxied)) {
-        throw new IllegalArgumentException(
-          "Reflection proxy interface " + cls.getName() + " proxies " + proxied.getName() + ", and extends from reflection proxy interface "
-            + prevProxy.getName() + " which proxies " + prevProxied.getName() + ", but the proxied types are not compatible."
+      final @Nullable Object scanEvent = Events.beginProxyScan(cls, proxied);
+      try {
+        this.scanInterface(
+          cls,
+          proxied,
+          classResolver,
+          fieldName -> reflectionRemapper.remapFieldName(proxied, fieldName),
+          (methodName, parameters) -> reflectionRemapper.remapMethodName(proxied, methodName, parameters),
+          reflectionRemapper::remapDescriptor,
+          members,
+          instanceMembers,
+          problems
         );
+      } finally {
+        Events.end(scanEvent);
       }
 
-      this.scanInterface(
-        cls,
-        proxied,
-        reflectionRemapper::remapClassOrArrayName,
-        fieldName -> reflectionRemapper.remapFieldName(proxied, fieldName),
-        (methodName, parameters) -> reflectionRemapper.remapMethodName(proxied, methodName, parameters)
-      );
-
       prevProxied = proxied;
       prevProxy = cls;
     }
+
+    if (prevProxied != null) {
+      this.proxiedClass = prevProxied;
+    }
   }
 
   private void scanInterface(
     final Class<?> interfaceClass,
     final Class<?> proxiedClass,
-    final UnaryOperator<String> classMapper,
+    final ClassResolver classResolver,
     final UnaryOperator<String> fieldMapper,
-    final BiFunction<String, Class<?>[], String> methodMapper
+    final BiFunction<String, Class<?>[], String> methodMapper,
+    final UnaryOperator<String> descriptorMapper,
+    final Map<Method, MethodHandle> members,
+    final Set<Method> instanceMembers,
+    final @Nullable Consumer<ReflectionProxyVerifier.Problem> problems
   ) {
+    final int receiverParameters = this.bound ? 0 : 1;
+    final MemberIndex index = new MemberIndex(proxiedClass);
     for (final Method method : interfaceClass.getDeclaredMethods()) {
-      if (isEqualsMethod(method) || isHashCodeMethod(method) || isToStringMethod(method) || Util.isSynthetic(method.getModifiers())) {
-        continue;
-      } else if (method.isDefault()) {
-        // We just load default methods lazily, no mappings need to be resolved so there is no need to eagerly evaluate them before mappings are discarded.
-        // Additionally, we can cache the bound handle.
-        continue;
-      }
+      try {
+        if (isEqualsMethod(method) || isHashCodeMethod(method) || isToStringMethod(method) || Util.isSynthetic(method.getModifiers())) {
+          continue;
+        } else if (method.isDefault()) {
+          // No mappings need to be resolved for default methods, see linkDefaultMethods
+          continue;
+        }
 
-      final boolean constructorInvoker = method.getDeclaredAnnotation(ConstructorInvoker.class) != null;
-      if (constructorInvoker) {
-        this.methods.put(
-          method,
-          adapt(Util.sneakyThrows(() -> LOOKUP.unreflectConstructor(this.findProxiedConstructor(proxiedClass, method, classMapper))))
-        );
-        continue;
-      }
+        final boolean constructorInvoker = method.getDeclaredAnnotation(ConstructorInvoker.class) != null;
+        if (constructorInvoker) {
+          final Constructor<?> constructor = lookup(proxiedClass, "<init>", () -> this.findProxiedConstructor(proxiedClass, index, method, classResolver, descriptorMapper));
+          members.put(method, MemberHandleCache.constructor(constructor));
+          this.methodCount++;
+          continue;
+        }
 
-      final @Nullable FieldGetter getterAnnotation = method.getDeclaredAnnotation(FieldGetter.class);
-      final @Nullable FieldSetter setterAnnotation = method.getDeclaredAnnotation(FieldSetter.class);
-      if (getterAnnotation != null && setterAnnotation != null) {
-        throw new IllegalArgumentException("Method " + method.getName() + " in " + interfaceClass.getTypeName() + " is annotated with @FieldGetter and @FieldSetter, don't know which to use.");
-      }
+        final @Nullable FieldGetter getterAnnotation = method.getDeclaredAnnotation(FieldGetter.class);
+        final @Nullable FieldSetter setterAnnotation = method.getDeclaredAnnotation(FieldSetter.class);
+        if (getterAnnotation != null && setterAnnotation != null) {
+          throw new IllegalArgumentException("Method " + method.getName() + " in " + interfaceClass.getTypeName() + " is annotated with @FieldGetter and @FieldSetter, don't know which to use.");
+        }
 
-      final boolean hasStaticAnnotation = method.getDeclaredAnnotation(Static.class) != null;
+        final boolean hasStaticAnnotation = method.getDeclaredAnnotation(Static.class) != null;
+
+        if (getterAnnotation != null) {
+          final Field field = lookup(proxiedClass, getterAnnotation.value(), () -> findProxiedField(proxiedClass, index, getterAnnotation.value(), fieldMapper));
+          final MethodHandle handle = MemberHandleCache.getter(field);
+          if (hasStaticAnnotation) {
+            checkParameterCount(method, interfaceClass, 0, "Static @FieldGetters should have no parameters.");
+          } else if (this.bound) {
+            checkParameterCount(method, interfaceClass, 0, "Non-static @FieldGetters of receiver-bound proxies should have no parameters.");
+            instanceMembers.add(method);
+          } else {
+            checkParameterCount(method, interfaceClass, 1, "Non-static @FieldGetters should have one parameter.");
+            instanceMembers.add(method);
+          }
+          members.put(method, handle);
+          this.fieldAccessorCount++;
+          continue;
+        }
 
-      if (getterAnnotation != null) {
-        final MethodHandle handle = Util.sneakyThrows(() -> LOOKUP.unreflectGetter(findProxiedField(proxiedClass, getterAnnotation.value(), fieldMapper)));
-        if (hasStaticAnnotation) {
-          checkParameterCount(method, interfaceClass, 0, "Static @FieldGetters should have no parameters.");
-          this.staticGetters.put(method, handle.asType(MethodType.methodType(Object.class)));
-        } else {
-          checkParameterCount(method, interfaceClass, 1, "Non-static @FieldGetters should have one parameter.");
-          this.getters.put(method, handle.asType(MethodType.methodType(Object.class, Object.class)));
+        if (setterAnnotation != null) {
+          final Field field = lookup(proxiedClass, setterAnnotation.value(), () -> findProxiedField(proxiedClass, index, setterAnnotation.value(), fieldMapper));
+          final MethodHandle handle = MemberHandleCache.setter(field);
+          if (hasStaticAnnotation) {
+            checkParameterCount(method, interfaceClass, 1, "Static @FieldSetters should have one parameter.");
+          } else if (this.bound) {
+            checkParameterCount(method, interfaceClass, 1, "Non-static @FieldSetters of receiver-bound proxies should have one parameter.");
+            instanceMembers.add(method);
+          } else {
+            checkParameterCount(method, interfaceClass, 2, "Non-static @FieldSetters should have two parameters.");
+            instanceMembers.add(method);
+          }
+          members.put(method, handle);
+          this.fieldAccessorCount++;
+          continue;
         }
-        continue;
-      }
 
-      if (setterAnnotation != null) {
-        final MethodHandle handle = Util.sneakyThrows(() -> LOOKUP.unreflectSetter(findProxiedField(proxiedClass, setterAnnotation.value(), fieldMapper)));
-        if (hasStaticAnnotation) {
-          checkParameterCount(method, interfaceClass, 1, "Static @FieldSetters should have one parameter.");
-          this.staticSetters.put(method, handle.asType(MethodType.methodType(Object.class, Object.class)));
-        } else {
-          checkParameterCount(method, interfaceClass, 2, "Non-static @FieldSetters should have two parameters.");
-          this.setters.put(method, handle.asType(MethodType.methodType(Object.class, Object.class, Object.class)));
+        final @Nullable FieldSnapshot snapshotAnnotation = method.getDeclaredAnnotation(FieldSnapshot.class);
+        if (snapshotAnnotation != null) {
+          if (hasStaticAnnotation) {
+            throw new IllegalArgumentException("@FieldSnapshot method " + method.getName() + " in " + interfaceClass.getTypeName() + " can't be static.");
+          }
+          final List<MethodHandle> getters = new ArrayList<>();
+          for (final String fieldName : snapshotAnnotation.value()) {
+            final Field field = lookup(proxiedClass, fieldName, () -> findProxiedField(proxiedClass, index, fieldName, fieldMapper));
+            getters.add(MemberHandleCache.getter(field));
+          }
+          final MethodHandle handle;
+          if (method.getParameterCount() == receiverParameters + 1) {
+            final Class<?> arrayType = method.getParameterTypes()[receiverParameters];
+            if (!arrayType.isArray() || method.getReturnType() != void.class) {
+              throw new IllegalArgumentException("@FieldSnapshot method " + method.getName() + " in " + interfaceClass.getTypeName() + " taking an output parameter should take an array and return void.");
+            }
+            handle = FieldSnapshots.fill(getters, arrayType);
+          } else {
+            checkParameterCount(method, interfaceClass, receiverParameters, "@FieldSnapshots should take the instance, and optionally an output array.");
+            handle = method.getReturnType().isArray()
+              ? FieldSnapshots.toArray(getters, method.getReturnType())
+              : FieldSnapshots.construct(getters, method.getReturnType());
+          }
+          members.put(method, handle);
+          instanceMembers.add(method);
+          this.fieldAccessorCount++;
+          continue;
         }
-        continue;
-      }
 
-      if (!hasStaticAnnotation && method.getParameterCount() < 1) {
-        throw new IllegalArgumentException("Non-static method invokers should have at least one parameter. Method " + method.getName() + " in " + interfaceClass.getTypeName() + " has " + method.getParameterCount());
-      }
+        final @Nullable BatchInvoker batchAnnotation = method.getDeclaredAnnotation(BatchInvoker.class);
+        if (batchAnnotation != null) {
+          if (hasStaticAnnotation) {
+            throw new IllegalArgumentException("@BatchInvoker method " + method.getName() + " in " + interfaceClass.getTypeName() + " can't be static.");
+          }
+          final int outputParameters = batchAnnotation.output() ? 1 : 0;
+          if (method.getParameterCount() < 1 + outputParameters || method.getReturnType() != void.class) {
+            throw new IllegalArgumentException("@BatchInvoker method " + method.getName() + " in " + interfaceClass.getTypeName() + " should take the instances, the target's parameters, " + (batchAnnotation.output() ? "and an output array, " : "") + "and return void.");
+          }
+          final Class<?> receiversType = method.getParameterTypes()[0];
+          if (!Iterable.class.isAssignableFrom(receiversType) && !(receiversType.isArray() && !receiversType.getComponentType().isPrimitive())) {
+            throw new IllegalArgumentException("The first parameter of @BatchInvoker method " + method.getName() + " in " + interfaceClass.getTypeName() + " should be an Iterable or an array of a reference type.");
+          }
+          final @Nullable Class<?> outputType = batchAnnotation.output() ? method.getParameterTypes()[method.getParameterCount() - 1] : null;
+          if (outputType != null && !outputType.isArray()) {
+            throw new IllegalArgumentException("The last parameter of @BatchInvoker method " + method.getName() + " in " + interfaceClass.getTypeName() + " should be an array.");
+          }
+          final Method proxiedMethod = lookup(proxiedClass, proxiedMethodName(method), () -> this.findProxiedMethod(proxiedClass, index, method, classResolver, methodMapper, descriptorMapper, 1, outputParameters));
+          if (Modifier.isStatic(proxiedMethod.getModifiers())) {
+            throw new IllegalArgumentException("@BatchInvoker method " + method.getName() + " in " + interfaceClass.getTypeName() + " targets a static method.");
+          }
+          if (outputType != null && proxiedMethod.getReturnType() == void.class) {
+            throw new IllegalArgumentException("@BatchInvoker method " + method.getName() + " in " + interfaceClass.getTypeName() + " has an output array, but its target returns void.");
+          }
+          members.put(method, BatchInvokers.batch(MemberHandleCache.method(proxiedMethod), outputType));
+          this.methodCount++;
+          continue;
+        }
 
-      this.methods.put(
-        method,
-        adapt(Util.sneakyThrows(() -> LOOKUP.unreflect(this.findProxiedMethod(proxiedClass, method, classMapper, methodMapper))))
-      );
+        if (!hasStaticAnnotation) {
+          if (method.getParameterCount() < receiverParameters) {
+            throw new IllegalArgumentException("Non-static method invokers should have at least one parameter. Method " + method.getName() + " in " + interfaceClass.getTypeName() + " has " + method.getParameterCount());
+          }
+          instanceMembers.add(method);
+        }
+
+        final Method proxiedMethod = lookup(proxiedClass, proxiedMethodName(method), () -> this.findProxiedMethod(proxiedClass, index, method, classResolver, methodMapper, descriptorMapper, hasStaticAnnotation ? 0 : receiverParameters, 0));
+        members.put(method, MemberHandleCache.method(proxiedMethod));
+        this.methodCount++;
+      } catch (final RuntimeException | LinkageError ex) {
+        if (problems == null) {
+          throw ex;
+        }
+        problems.accept(new ReflectionProxyVerifier.Problem(interfaceClass, method, ex));
+      }
     }
   }
 
-  private static MethodHandle adapt(final MethodHandle handle) {
-    if (handle.type().parameterCount() == 0) {
-      return handle.asType(MethodType.methodType(Object.class));
+  /**
+   * Adapts a handle to the erased form used by {@link #dispatch(MethodHandle, Object[])}.
+   *
+   * <p>Handles with up to {@value #MAX_EXACT_ARITY} parameters are invoked with their exact arity,
+   * so the argument array does not escape. Handles with more parameters spread the argument array.</p>
+   *
+   * @param handle handle
+   * @return adapted handle
+   */
+  static MethodHandle adapt(final MethodHandle handle) {
+    final int parameterCount = handle.type().parameterCount();
+    if (parameterCount <= MAX_EXACT_ARITY) {
+      return handle.asType(MethodType.genericMethodType(parameterCount));
     }
-    return handle.asSpreader(Object[].class, handle.type().parameterCount())
+    return handle.asSpreader(Object[].class, parameterCount)
       .asType(MethodType.methodType(Object.class, Object[].class));
   }
 
+  /**
+   * Adapts a handle taking a leading argument, the proxy of a default method or the receiver of a bound
+   * instance member, to the erased form used by {@link #dispatchLeading(MethodHandle, Object, Object[])}.
+   *
+   * <p>Like {@link #adapt(MethodHandle)}, counting the leading parameter towards the exact
+   * arity. Handles with more parameters spread the argument array after the leading argument.</p>
+   *
+   * @param handle handle, taking the leading argument first
+   * @return adapted handle
+   */
+  static MethodHandle adaptLeading(final MethodHandle handle) {
+    final int parameterCount = handle.type().parameterCount();
+    if (parameterCount <= MAX_EXACT_ARITY) {
+      return handle.asType(MethodType.genericMethodType(parameterCount));
+    }
+    return handle.asSpreader(Object[].class, parameterCount - 1)
+      .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+  }
+
   private static void checkParameterCount(final Method method, final Class<?> holder, final int expected, final String message) {
     if (method.getParameterCount() != expected) {
       throw new IllegalArgumentException(
@@ -267,88 +706,121 @@ final class ReflectionProxyInvocationHandler<I> implements InvocationHandler {
       && method.getReturnType() == boolean.class;
   }
 
+  private static <M> M lookup(final Class<?> proxiedClass, final String memberName, final Supplier<M> lookup) {
+    final @Nullable Object event = Events.beginMemberLookup(proxiedClass, memberName);
+    try {
+      return lookup.get();
+    } finally {
+      Events.end(event);
+    }
+  }
+
+  private static String proxiedMethodName(final Method method) {
+    final @Nullable MethodName methodAnnotation = method.getDeclaredAnnotation(MethodName.class);
+    return methodAnnotation == null ? method.getName() : methodAnnotation.value();
+  }
+
   private static Field findProxiedField(
     final Class<?> proxiedClass,
+    final MemberIndex index,
     final String fieldName,
     final UnaryOperator<String> fieldMapper
   ) {
-    final Field field;
-    try {
-      field = proxiedClass.getDeclaredField(fieldMapper.apply(fieldName));
-    } catch (final NoSuchFieldException e) {
-      throw new IllegalArgumentException("Could not find field '" + fieldName + "' in " + proxiedClass.getTypeName(), e);
-    }
-    try {
-      field.setAccessible(true);
-    } catch (final Exception ex) {
-      throw new IllegalStateException("Could not set access for field '" + fieldName + "' in " + proxiedClass.getTypeName(), ex);
+    final String mappedName = fieldMapper.apply(fieldName);
+    final @Nullable Field field = index.field(mappedName);
+    if (field == null) {
+      throw new IllegalArgumentException("Could not find field '" + fieldName + "' in " + proxiedClass.getTypeName(), new NoSuchFieldException(mappedName));
     }
     return field;
   }
 
   private Constructor<?> findProxiedConstructor(
     final Class<?> proxiedClass,
+    final MemberIndex index,
     final Method method,
-    final UnaryOperator<String> classMapper
+    final ClassResolver classResolver,
+    final UnaryOperator<String> descriptorMapper
   ) {
+    final @Nullable Descriptor descriptor = method.getDeclaredAnnotation(Descriptor.class);
+    if (descriptor != null) {
+      final String parameters = parametersDescriptor(descriptorMapper.apply(descriptor.value()));
+      final @Nullable Constructor<?> constructor = index.constructor(parameters);
+      if (constructor == null) {
+        throw new IllegalArgumentException("Could not find constructor of " + proxiedClass.getTypeName() + " with descriptor " + descriptor.value(), new NoSuchMethodException(proxiedClass.getName() + ".<init>(" + parameters + ")"));
+      }
+      checkDescriptorParameterCount(method, constructor.getParameterCount(), method.getParameterCount());
+      return constructor;
+    }
+
     final Class<?>[] actualParams = Arrays.stream(method.getParameters())
-      .map(p -> resolveParameterTypeClass(p, classMapper))
+      .map(p -> resolveParameterTypeClass(p, classResolver))
       .toArray(Class<?>[]::new);
 
-    final Constructor<?> constructor;
-    try {
-      constructor = proxiedClass.getDeclaredConstructor(actualParams);
-    } catch (final NoSuchMethodException ex) {
-      throw new IllegalArgumentException("Could not find constructor of " + proxiedClass.getTypeName() + " with parameter types " + Arrays.toString(method.getParameterTypes()), ex);
-    }
-    try {
-      constructor.setAccessible(true);
-    } catch (final Exception ex) {
-      throw new IllegalStateException("Could not set access for proxy method target constructor of " + proxiedClass.getTypeName() + " with parameter types " + Arrays.toString(method.getParameterTypes()), ex);
+    final @Nullable Constructor<?> constructor = index.constructor(actualParams);
+    if (constructor == null) {
+      throw new IllegalArgumentException("Could not find constructor of " + proxiedClass.getTypeName() + " with parameter types " + Arrays.toString(method.getParameterTypes()), new NoSuchMethodException(proxiedClass.getName() + ".<init>" + Arrays.toString(actualParams)));
     }
     return constructor;
   }
 
   private Method findProxiedMethod(
     final Class<?> proxiedClass,
+    final MemberIndex index,
     final Method method,
-    final UnaryOperator<String> classMapper,
-    final BiFunction<String, Class<?>[], String> methodMapper
+    final ClassResolver classResolver,
+    final BiFunction<String, Class<?>[], String> methodMapper,
+    final UnaryOperator<String> descriptorMapper,
+    final int leadingParameters,
+    final int trailingParameters
   ) {
-    final boolean hasStaticAnnotation = method.getDeclaredAnnotation(Static.class) != null;
-
+    final String methodName = proxiedMethodName(method);
+    final int parameterCount = method.getParameterCount() - leadingParameters - trailingParameters;
+    final @Nullable Descriptor descriptor = method.getDeclaredAnnotation(Descriptor.class);
     final Class<?>[] actualParams;
-    if (hasStaticAnnotation) {
-      actualParams = Arrays.stream(method.getParameters())
-        .map(p -> resolveParameterTypeClass(p, classMapper))
-        .toArray(Class<?>[]::new);
+    if (descriptor != null) {
+      // Take the parameter classes from a declared method with the same parameters, rather than loading them by name
+      final String parameters = parametersDescriptor(descriptorMapper.apply(descriptor.value()));
+      final Class<?> @Nullable [] parameterTypes = index.methodParameterTypes(parameters);
+      if (parameterTypes == null) {
+        throw new IllegalArgumentException("Could not find proxy method target method: " + proxiedClass.getTypeName() + " " + methodName + descriptor.value(), new NoSuchMethodException(proxiedClass.getName() + "." + methodName + "(" + parameters + ")"));
+      }
+      checkDescriptorParameterCount(method, parameterTypes.length, parameterCount);
+      actualParams = parameterTypes;
     } else {
       actualParams = Arrays.stream(method.getParameters())
-        .skip(1)
-        .map(p -> resolveParameterTypeClass(p, classMapper))
+        .skip(leadingParameters)
+        .limit(parameterCount)
+        .map(p -> resolveParameterTypeClass(p, classResolver))
         .toArray(Class<?>[]::new);
     }
 
-    final @Nullable MethodName methodAnnotation = method.getDeclaredAnnotation(MethodName.class);
-    final String methodName = methodAnnotation == null ? method.getName() : methodAnnotation.value();
-    final Method proxiedMethod;
-    try {
-      proxiedMethod = proxiedClass.getDeclaredMethod(methodMapper.apply(methodName, actualParams), actualParams);
-    } catch (final NoSuchMethodException e) {
+    final @Nullable Method proxiedMethod = index.method(methodMapper.apply(methodName, actualParams), actualParams);
+    if (proxiedMethod == null) {
       throw new IllegalArgumentException("Could not find proxy method target method: " + proxiedClass.getTypeName() + " " + methodName);
     }
-    try {
-      proxiedMethod.setAccessible(true);
-    } catch (final Exception ex) {
-      throw new IllegalStateException("Could not set access for proxy method target method: " + proxiedClass.getTypeName() + " " + methodName, ex);
-    }
 
     return proxiedMethod;
   }
 
+  private static String parametersDescriptor(final String descriptor) {
+    final int end = descriptor.indexOf(')');
+    if (descriptor.isEmpty() || descriptor.charAt(0) != '(' || end == -1) {
+      throw new IllegalArgumentException("Invalid method descriptor '" + descriptor + "'");
+    }
+    return descriptor.substring(1, end);
+  }
+
+  private static void checkDescriptorParameterCount(final Method method, final int descriptorParameters, final int methodParameters) {
+    if (descriptorParameters != methodParameters) {
+      throw new IllegalArgumentException(
+        String.format("The @Descriptor of method %s in %s has %d parameters, while the method passes %d.", method.getName(), method.getDeclaringClass().getTypeName(), descriptorParameters, methodParameters)
+      );
+    }
+  }
+
   private static Class<?> resolveParameterTypeClass(
     final Parameter parameter,
-    final UnaryOperator<String> classMapper
+    final ClassResolver classResolver
   ) {
     final @Nullable Type typeAnnotation = parameter.getDeclaredAnnotation(Type.class);
     if (typeAnnotation == null) {
@@ -360,12 +832,12 @@ final class ReflectionProxyInvocationHandler<I> implements InvocationHandler {
     }
 
     if (typeAnnotation.value() != Object.class) {
-      return Util.findProxiedClass(typeAnnotation.value(), classMapper);
+      return Util.findProxiedClass(typeAnnotation.value(), classResolver);
     }
 
     final Class<?> namedClass;
     try {
-      namedClass = Class.forName(classMapper.apply(typeAnnotation.className()));
+      namedClass = classResolver.resolve(typeAnnotation.className(), parameter.getDeclaringExecutable().getDeclaringClass().getClassLoader());
     } catch (final ClassNotFoundException e) {
       throw new IllegalArgumentException("Class " + typeAnnotation.className() + " specified in @Type annotation not found.", e);
     }
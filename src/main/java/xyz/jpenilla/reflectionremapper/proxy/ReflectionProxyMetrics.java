@@ -0,0 +1,340 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Collects per-method invocation metrics for reflection proxies.
+ *
+ * <p>Metrics are recorded for proxies created by a factory returned from
+ * {@link ReflectionProxyFactory#withMetrics(ReflectionProxyMetrics)}. Proxies created without
+ * metrics dispatch directly to their method handles, and do not pay for instrumentation.</p>
+ *
+ * <p>Every invocation is counted. Latency is only measured for a random sample of invocations,
+ * see {@link #create(int)}.</p>
+ *
+ * <p>Metrics are stored alongside their proxy interface, and do not keep it or its class loader
+ * reachable. A single instance may be shared by proxies of plugins that are reloaded.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class ReflectionProxyMetrics {
+  private static final int DEFAULT_SAMPLE_INTERVAL = 64;
+  private static final MethodHandle[] INVOKE = new MethodHandle[ReflectionProxyInvocationHandler.MAX_EXACT_ARITY + 1];
+  private static final MethodHandle INVOKE_SPREAD;
+  private static final MethodHandle INVOKE_SPREAD_AFTER_PROXY;
+
+  static {
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      for (int arity = 0; arity < INVOKE.length; arity++) {
+        INVOKE[arity] = lookup.findVirtual(MethodMetrics.class, "invoke", MethodType.genericMethodType(arity).insertParameterTypes(0, MethodHandle.class));
+      }
+      INVOKE_SPREAD = lookup.findVirtual(MethodMetrics.class, "invoke", MethodType.methodType(Object.class, MethodHandle.class, Object[].class));
+      INVOKE_SPREAD_AFTER_PROXY = lookup.findVirtual(MethodMetrics.class, "invoke", MethodType.methodType(Object.class, MethodHandle.class, Object.class, Object[].class));
+    } catch (final ReflectiveOperationException ex) {
+      throw new ExceptionInInitializerError(ex);
+    }
+  }
+
+  private final int sampleInterval;
+  private final ClassValue<Map<Method, MethodMetrics>> methods = new ClassValue<Map<Method, MethodMetrics>>() {
+    @Override
+    protected Map<Method, MethodMetrics> computeValue(final Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+  private final Map<Class<?>, Boolean> interfaces = Collections.synchronizedMap(new WeakHashMap<>()); // interfaces with metrics, for methods()
+
+  private ReflectionProxyMetrics(final int sampleInterval) {
+    this.sampleInterval = sampleInterval;
+  }
+
+  /**
+   * Creates a new {@link ReflectionProxyMetrics}, measuring the latency of roughly one in every
+   * 64 invocations.
+   *
+   * @return new metrics
+   */
+  public static ReflectionProxyMetrics create() {
+    return new ReflectionProxyMetrics(DEFAULT_SAMPLE_INTERVAL);
+  }
+
+  /**
+   * Creates a new {@link ReflectionProxyMetrics}, measuring the latency of roughly one in every
+   * {@code sampleInterval} invocations.
+   *
+   * @param sampleInterval latency sample interval, {@code 1} to measure every invocation
+   * @return new metrics
+   */
+  public static ReflectionProxyMetrics create(final int sampleInterval) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("sampleInterval must be positive, got " + sampleInterval);
+    }
+    return new ReflectionProxyMetrics(sampleInterval);
+  }
+
+  /**
+   * Returns an unmodifiable snapshot of the metrics for each proxy interface method that has
+   * been linked so far, and whose interface has not been unloaded.
+   *
+   * <p>The returned {@link MethodMetrics} are live.</p>
+   *
+   * @return metrics by proxy interface method
+   */
+  public Map<Method, MethodMetrics> methods() {
+    final Map<Method, MethodMetrics> methods = new HashMap<>();
+    synchronized (this.interfaces) {
+      for (final Class<?> proxyInterface : this.interfaces.keySet()) {
+        methods.putAll(this.methods.get(proxyInterface));
+      }
+    }
+    return Collections.unmodifiableMap(methods);
+  }
+
+  /**
+   * Returns the metrics for the given proxy interface method, if it has been linked.
+   *
+   * @param method proxy interface method
+   * @return metrics, or {@code null}
+   */
+  public @Nullable MethodMetrics method(final Method method) {
+    return this.methods.get(method.getDeclaringClass()).get(method);
+  }
+
+  /**
+   * Wraps a dispatch handle, as produced by {@code ReflectionProxyInvocationHandler.adapt} or {@code adaptLeading}, to
+   * record metrics for the given method.
+   *
+   * @param method proxy interface method
+   * @param handle dispatch handle
+   * @return instrumented dispatch handle of the same type
+   */
+  MethodHandle instrument(final Method method, final MethodHandle handle) {
+    this.interfaces.put(method.getDeclaringClass(), Boolean.TRUE);
+    final MethodMetrics metrics = this.methods.get(method.getDeclaringClass()).computeIfAbsent(method, MethodMetrics::new);
+    final MethodType type = handle.type();
+    final MethodHandle wrapper;
+    if (type.parameterCount() == 1 && type.parameterType(0) == Object[].class) {
+      wrapper = INVOKE_SPREAD;
+    } else if (type.parameterCount() == 2 && type.parameterType(1) == Object[].class) {
+      wrapper = INVOKE_SPREAD_AFTER_PROXY;
+    } else {
+      wrapper = INVOKE[type.parameterCount()];
+    }
+    return MethodHandles.insertArguments(wrapper, 0, metrics, handle);
+  }
+
+  /**
+   * Invocation metrics for a single proxy interface method.
+   */
+  public final class MethodMetrics {
+    private static final int BUCKETS = 64;
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final Method method;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder exceptions = new LongAdder();
+    private final LongAdder sampledNanos = new LongAdder();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(BUCKETS);
+
+    private MethodMetrics(final Method method) {
+      this.method = method;
+    }
+
+    /**
+     * Returns the proxy interface method.
+     *
+     * @return method
+     */
+    public Method method() {
+      return this.method;
+    }
+
+    /**
+     * Returns the number of invocations.
+     *
+     * @return invocation count
+     */
+    public long invocationCount() {
+      return this.invocations.sum();
+    }
+
+    /**
+     * Returns the number of invocations which threw an exception.
+     *
+     * @return exception count
+     */
+    public long exceptionCount() {
+      return this.exceptions.sum();
+    }
+
+    /**
+     * Returns the number of invocations whose latency was sampled.
+     *
+     * @return sample count
+     */
+    public long sampleCount() {
+      long count = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        count += this.latencyHistogram.get(i);
+      }
+      return count;
+    }
+
+    /**
+     * Returns the total latency of the sampled invocations, in nanoseconds.
+     *
+     * @return total sampled latency
+     */
+    public long sampledLatencyNanos() {
+      return this.sampledNanos.sum();
+    }
+
+    /**
+     * Returns a snapshot of the sampled latency histogram.
+     *
+     * <p>The histogram has 64 power-of-two buckets, where bucket {@code i} counts samples with a
+     * latency of at least {@code 2^i} and less than {@code 2^(i + 1)} nanoseconds. Bucket {@code 0}
+     * also counts samples under one nanosecond.</p>
+     *
+     * @return latency histogram
+     */
+    public long[] latencyHistogram() {
+      final long[] histogram = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+        histogram[i] = this.latencyHistogram.get(i);
+      }
+      return histogram;
+    }
+
+    private long start() {
+      this.invocations.increment();
+      final int interval = ReflectionProxyMetrics.this.sampleInterval;
+      if (interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0) {
+        return System.nanoTime();
+      }
+      return NOT_SAMPLED;
+    }
+
+    private void end(final long start) {
+      if (start == NOT_SAMPLED) {
+        return;
+      }
+      final long nanos = System.nanoTime() - start;
+      this.sampledNanos.add(nanos);
+      this.latencyHistogram.incrementAndGet(nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    @Nullable Object invoke(final MethodHandle handle) throws Throwable {
+      final long start = this.start();
+      try {
+        return handle.invokeExact();
+      } catch (final Throwable ex) {
+        this.exceptions.increment();
+        throw ex;
+      } finally {
+        this.end(start);
+      }
+    }
+
+    @Nullable Object invoke(final MethodHandle handle, final Object a) throws Throwable {
+      final long start = this.start();
+      try {
+        return handle.invokeExact(a);
+      } catch (final Throwable ex) {
+        this.exceptions.increment();
+        throw ex;
+      } finally {
+        this.end(start);
+      }
+    }
+
+    @Nullable Object invoke(final MethodHandle handle, final Object a, final Object b) throws Throwable {
+      final long start = this.start();
+      try {
+        return handle.invokeExact(a, b);
+      } catch (final Throwable ex) {
+        this.exceptions.increment();
+        throw ex;
+      } finally {
+        this.end(start);
+      }
+    }
+
+    @Nullable Object invoke(final MethodHandle handle, final Object a, final Object b, final Object c) throws Throwable {
+      final long start = this.start();
+      try {
+        return handle.invokeExact(a, b, c);
+      } catch (final Throwable ex) {
+        this.exceptions.increment();
+        throw ex;
+      } finally {
+        this.end(start);
+      }
+    }
+
+    @Nullable Object invoke(final MethodHandle handle, final Object[] args) throws Throwable {
+      final long start = this.start();
+      try {
+        return handle.invokeExact(args);
+      } catch (final Throwable ex) {
+        this.exceptions.increment();
+        throw ex;
+      } finally {
+        this.end(start);
+      }
+    }
+
+    @Nullable Object invoke(final MethodHandle handle, final Object proxy, final Object[] args) throws Throwable {
+      final long start = this.start();
+      try {
+        return handle.invokeExact(proxy, args);
+      } catch (final Throwable ex) {
+        this.exceptions.increment();
+        throw ex;
+      } finally {
+        this.end(start);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "MethodMetrics[" +
+        "method=" + this.method + ", " +
+        "invocationCount=" + this.invocationCount() + ", " +
+        "exceptionCount=" + this.exceptionCount() + ", " +
+        "sampleCount=" + this.sampleCount() + ", " +
+        "sampledLatencyNanos=" + this.sampledLatencyNanos() + ']';
+    }
+  }
+}
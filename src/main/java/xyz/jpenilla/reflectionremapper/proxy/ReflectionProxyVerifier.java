@@ -0,0 +1,277 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import xyz.jpenilla.reflectionremapper.ReflectionRemapper;
+import xyz.jpenilla.reflectionremapper.internal.util.ClassResolver;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
+
+/**
+ * Verifies that "reflection proxy interfaces" resolve against a {@link ReflectionRemapper}'s
+ * mappings and the classes visible to their class loader, without creating any proxies.
+ *
+ * <p>Unlike {@link ReflectionProxyFactory}, which fails on the first member that doesn't resolve,
+ * the verifier checks every member of every interface, in parallel, and reports all problems at
+ * once. Proxied classes are loaded without being initialized, so the verifier can run against
+ * a server jar on the classpath, i.e. in a build's test task, without a running server.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class ReflectionProxyVerifier {
+  private static final String CLASS_SUFFIX = ".class";
+  private static final byte[] PROXIES_DESCRIPTOR = ("L" + Proxies.class.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+
+  private final ReflectionRemapper reflectionRemapper;
+  private final ClassResolver classResolver;
+
+  private ReflectionProxyVerifier(final ReflectionRemapper reflectionRemapper) {
+    this.reflectionRemapper = reflectionRemapper;
+    this.classResolver = new ClassResolver(reflectionRemapper::remapClassOrArrayName);
+  }
+
+  /**
+   * Verify the given reflection proxy interfaces, as used with {@link ReflectionProxyFactory#reflectionProxy(Class)}.
+   *
+   * @param proxyInterfaces reflection proxy interfaces
+   * @return problems found, empty when all interfaces resolved
+   */
+  public List<Problem> verify(final Collection<? extends Class<?>> proxyInterfaces) {
+    return this.verify(proxyInterfaces, false);
+  }
+
+  /**
+   * Verify the given receiver-bound reflection proxy interfaces, as used with
+   * {@link ReflectionProxyFactory#reflectionProxyBinder(Class)}.
+   *
+   * @param proxyInterfaces receiver-bound reflection proxy interfaces
+   * @return problems found, empty when all interfaces resolved
+   */
+  public List<Problem> verifyBound(final Collection<? extends Class<?>> proxyInterfaces) {
+    return this.verify(proxyInterfaces, true);
+  }
+
+  /**
+   * Verify all reflection proxy interfaces in the given jar, as used with
+   * {@link ReflectionProxyFactory#reflectionProxy(Class)}.
+   *
+   * <p>Only classes referencing {@link Proxies} are loaded. Classes which fail to load, i.e. because
+   * a super interface or a class in their signatures is missing, are reported as problems without
+   * a {@link Problem#proxyInterface()}. Receiver-bound interfaces can't be told apart from others,
+   * and should be verified with {@link #verifyBound(Collection)} instead.</p>
+   *
+   * @param jar         jar to scan
+   * @param classLoader class loader to load interfaces and proxied classes from
+   * @return problems found, empty when all interfaces resolved
+   * @throws IOException when reading the jar fails
+   */
+  public List<Problem> verifyJar(final Path jar, final ClassLoader classLoader) throws IOException {
+    final Queue<Problem> problems = new ConcurrentLinkedQueue<>();
+    return this.verify(findProxyInterfaces(jar, classLoader, problems), false, problems);
+  }
+
+  private List<Problem> verify(final Collection<? extends Class<?>> proxyInterfaces, final boolean bound) {
+    return this.verify(proxyInterfaces, bound, new ConcurrentLinkedQueue<>());
+  }
+
+  private List<Problem> verify(final Collection<? extends Class<?>> proxyInterfaces, final boolean bound, final Queue<Problem> problems) {
+    proxyInterfaces.parallelStream().forEach(proxyInterface -> {
+      try {
+        new ReflectionProxyInvocationHandler<>(proxyInterface, this.reflectionRemapper, this.classResolver, bound, null, problems::add);
+      } catch (final RuntimeException | LinkageError ex) {
+        problems.add(new Problem(proxyInterface, null, ex));
+      }
+    });
+    // interfaces sharing a super interface report its problems more than once
+    return problems.stream()
+      .distinct()
+      .sorted(Comparator.comparing(Problem::toString))
+      .collect(Collectors.toList());
+  }
+
+  private static List<Class<?>> findProxyInterfaces(final Path jar, final ClassLoader classLoader, final Collection<Problem> problems) throws IOException {
+    final List<Class<?>> interfaces = new ArrayList<>();
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      final Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        final ZipEntry entry = entries.nextElement();
+        final String name = entry.getName();
+        if (!name.endsWith(CLASS_SUFFIX) || name.startsWith("META-INF/") || name.endsWith("module-info.class")) {
+          continue;
+        }
+        try (InputStream stream = zip.getInputStream(entry)) {
+          if (!contains(readAll(stream), PROXIES_DESCRIPTOR)) {
+            continue;
+          }
+        }
+        final String className = name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.');
+        final Class<?> cls;
+        try {
+          cls = Class.forName(className, false, classLoader);
+        } catch (final ClassNotFoundException | LinkageError ex) {
+          problems.add(new Problem(className, ex));
+          continue;
+        }
+        if (cls.isInterface() && cls.isAnnotationPresent(Proxies.class)) {
+          interfaces.add(cls);
+        }
+      }
+    }
+    return interfaces;
+  }
+
+  private static byte[] readAll(final InputStream stream) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int read;
+    while ((read = stream.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static boolean contains(final byte[] haystack, final byte[] needle) {
+    outer:
+    for (int i = 0; i <= haystack.length - needle.length; i++) {
+      for (int j = 0; j < needle.length; j++) {
+        if (haystack[i + j] != needle[j]) {
+          continue outer;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Create a new {@link ReflectionProxyVerifier} using the specified {@link ReflectionRemapper} for remapping.
+   *
+   * @param reflectionRemapper reflection remapper
+   * @return new {@link ReflectionProxyVerifier}
+   */
+  public static ReflectionProxyVerifier create(final ReflectionRemapper reflectionRemapper) {
+    return new ReflectionProxyVerifier(reflectionRemapper);
+  }
+
+  /**
+   * A member, or interface, which failed to resolve.
+   */
+  public static final class Problem {
+    private final String interfaceName;
+    private final @Nullable Class<?> proxyInterface;
+    private final @Nullable Method method;
+    private final Throwable cause;
+
+    Problem(final Class<?> proxyInterface, final @Nullable Method method, final Throwable cause) {
+      this.interfaceName = proxyInterface.getTypeName();
+      this.proxyInterface = proxyInterface;
+      this.method = method;
+      this.cause = cause;
+    }
+
+    Problem(final String interfaceName, final Throwable cause) {
+      this.interfaceName = interfaceName;
+      this.proxyInterface = null;
+      this.method = null;
+      this.cause = cause;
+    }
+
+    /**
+     * Returns the name of the reflection proxy interface which declares the problematic member.
+     *
+     * @return reflection proxy interface name
+     */
+    public String interfaceName() {
+      return this.interfaceName;
+    }
+
+    /**
+     * Returns the reflection proxy interface which declares the problematic member, or {@code null}
+     * when the interface itself failed to load, see {@link #interfaceName()}.
+     *
+     * @return reflection proxy interface, or {@code null}
+     */
+    public @Nullable Class<?> proxyInterface() {
+      return this.proxyInterface;
+    }
+
+    /**
+     * Returns the interface method which failed to resolve, or {@code null} when the
+     * interface itself failed to load or resolve, i.e. when its proxied class was not found.
+     *
+     * @return interface method, or {@code null}
+     */
+    public @Nullable Method method() {
+      return this.method;
+    }
+
+    /**
+     * Returns the exception resolution failed with.
+     *
+     * @return cause
+     */
+    public Throwable cause() {
+      return this.cause;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Problem)) {
+        return false;
+      }
+      final Problem that = (Problem) o;
+      return this.interfaceName.equals(that.interfaceName)
+        && Objects.equals(this.proxyInterface, that.proxyInterface)
+        && Objects.equals(this.method, that.method)
+        && Objects.equals(this.cause.getMessage(), that.cause.getMessage());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.interfaceName, this.method, this.cause.getMessage());
+    }
+
+    @Override
+    public String toString() {
+      return this.interfaceName
+        + (this.method == null ? "" : "#" + this.method.getName())
+        + ": " + this.cause;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Used to annotate methods on a reflection proxy interface as batch invokers, invoking the
+ * target method once for each of several instances in a single call.
+ *
+ * <p>The first parameter of an annotated method holds the instances, and is either an array of
+ * a reference type or an {@link Iterable}. The following parameters are the target method's
+ * parameters, and are passed to every invocation. When {@link #output()} is {@code true}, the
+ * last parameter is an array which each invocation's result is stored into, at the index of its
+ * instance, i.e. {@code void health(Object[] entities, float[] out)}. Otherwise results are discarded.
+ * When the instances are an array or a {@link java.util.Collection}, an output array shorter than
+ * them fails with an {@link IllegalArgumentException} before any instance is invoked.</p>
+ *
+ * <p>Annotated methods return {@code void}, and may be declared on receiver-bound proxies.
+ * {@link Static} methods are not supported.</p>
+ */
+@DefaultQualifier(NonNull.class)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BatchInvoker {
+  /**
+   * Whether the last parameter of the annotated method is an output array for results.
+   *
+   * @return whether results are stored
+   */
+  boolean output() default false;
+}
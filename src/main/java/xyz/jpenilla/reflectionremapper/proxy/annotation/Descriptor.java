@@ -0,0 +1,49 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Used to specify the Mojang-mapped descriptor of the method or constructor targeted by the
+ * annotated method, i.e. {@code (Lnet/minecraft/core/BlockPos;I)V}.
+ *
+ * <p>The target is then found by its descriptor, instead of by the annotated method's parameter
+ * types. Classes named in the descriptor are remapped by name, and are not loaded, unlike classes
+ * named by {@link Type#className()}. The annotated method must still declare a parameter for
+ * each of the target's parameters, which may be typed as {@link Object}.</p>
+ *
+ * <p>Only the parameter types are used to find the target, the return type may be omitted,
+ * i.e. {@code (Lnet/minecraft/core/BlockPos;I)}.</p>
+ */
+@DefaultQualifier(NonNull.class)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Descriptor {
+  /**
+   * The Mojang-mapped JVM descriptor of the target.
+   *
+   * @return descriptor
+   */
+  String value();
+}
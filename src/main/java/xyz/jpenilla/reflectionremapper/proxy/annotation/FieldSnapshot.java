@@ -0,0 +1,53 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Used to annotate methods on a reflection proxy interface as a bulk getter, reading several
+ * fields of one instance in a single call.
+ *
+ * <p>Besides the instance parameter, an annotated method either:</p>
+ * <ul>
+ *   <li>takes an array, which the field values are stored into in order, i.e.
+ *   {@code void position(Object entity, double[] out)}</li>
+ *   <li>returns a new array holding the field values in order, i.e. {@code Object[] state(Object entity)}</li>
+ *   <li>returns a new instance of a class with a constructor taking the field values in order,
+ *   i.e. a record</li>
+ * </ul>
+ *
+ * <p>Field values must be assignable to the array's component type or the constructor's parameter
+ * types, allowing for boxing, unboxing and primitive widening. {@link Static} fields are not supported.</p>
+ */
+@DefaultQualifier(NonNull.class)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FieldSnapshot {
+  /**
+   * The names of the target fields, in order.
+   *
+   * @return field names
+   */
+  String[] value();
+}
@@ -0,0 +1,96 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.internal.jfr;
+
+import jdk.jfr.Event;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Java Flight Recorder events for mapping loading and proxy resolution.
+ *
+ * <p>Each {@code begin} method returns an event to pass to {@link #end(Object)}, or {@code null}
+ * when the event is disabled.</p>
+ */
+@DefaultQualifier(NonNull.class)
+public final class Events {
+  private Events() {
+  }
+
+  public static @Nullable Object beginMappingsParse(final String fromNamespace, final String toNamespace) {
+    final MappingsParseEvent event = new MappingsParseEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.fromNamespace = fromNamespace;
+    event.toNamespace = toNamespace;
+    event.begin();
+    return event;
+  }
+
+  public static @Nullable Object beginMappingsIndex(final String fromNamespace, final String toNamespace) {
+    final MappingsIndexEvent event = new MappingsIndexEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.fromNamespace = fromNamespace;
+    event.toNamespace = toNamespace;
+    event.begin();
+    return event;
+  }
+
+  public static @Nullable Object beginProxyScan(final Class<?> proxyInterface, final Class<?> proxiedClass) {
+    final ProxyScanEvent event = new ProxyScanEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.proxyInterface = proxyInterface;
+    event.proxiedClass = proxiedClass;
+    event.begin();
+    return event;
+  }
+
+  public static @Nullable Object beginMemberLookup(final Class<?> proxiedClass, final String memberName) {
+    final MemberLookupEvent event = new MemberLookupEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.proxiedClass = proxiedClass;
+    event.memberName = memberName;
+    event.begin();
+    return event;
+  }
+
+  public static @Nullable Object beginUnreflect(final Class<?> proxiedClass, final String memberName) {
+    final UnreflectEvent event = new UnreflectEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.proxiedClass = proxiedClass;
+    event.memberName = memberName;
+    event.begin();
+    return event;
+  }
+
+  public static void end(final @Nullable Object event) {
+    if (event != null) {
+      ((Event) event).commit();
+    }
+  }
+}
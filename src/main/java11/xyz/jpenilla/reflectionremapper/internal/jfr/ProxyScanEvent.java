@@ -0,0 +1,38 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("xyz.jpenilla.reflectionremapper.ProxyScan")
+@Label("Reflection Proxy Scan")
+@Description("Resolving the members of a reflection proxy interface")
+@Category("reflection-remapper")
+@StackTrace(false)
+final class ProxyScanEvent extends Event {
+  @Label("Proxy Interface")
+  Class<?> proxyInterface;
+
+  @Label("Proxied Class")
+  Class<?> proxiedClass;
+}
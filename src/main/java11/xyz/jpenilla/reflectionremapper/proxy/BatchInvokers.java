@@ -0,0 +1,174 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+/**
+ * Wraps method handles into a single handle invoking them once per receiver for
+ * {@link xyz.jpenilla.reflectionremapper.proxy.annotation.BatchInvoker} methods.
+ *
+ * <p>This is the Java 11+ implementation. Each loop is built from method handle combinators around
+ * its own target, rather than calling the target from a helper method shared by every batch handle,
+ * so that the JIT can specialize and inline the loop body per batch handle. Arguments are passed to
+ * the target directly, without collecting them into an array.</p>
+ */
+@DefaultQualifier(NonNull.class)
+final class BatchInvokers {
+  private static final MethodHandle IS_ARRAY;
+  private static final MethodHandle CHECK_OUTPUT;
+  private static final MethodHandle NEXT_INDEX;
+
+  static {
+    try {
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      IS_ARRAY = lookup.findVirtual(Class.class, "isInstance", MethodType.methodType(boolean.class, Object.class))
+        .bindTo(Object[].class);
+      CHECK_OUTPUT = lookup.findStatic(BatchInvokers.class, "checkOutput", MethodType.methodType(void.class, Object.class, Object.class));
+      NEXT_INDEX = lookup.findStatic(BatchInvokers.class, "nextIndex", MethodType.methodType(int.class, int.class));
+    } catch (final ReflectiveOperationException ex) {
+      throw new ExceptionInInitializerError(ex);
+    }
+  }
+
+  private BatchInvokers() {
+  }
+
+  /**
+   * Creates a handle of type {@code (Object, Object...)void} invoking {@code target} for each
+   * receiver in the first argument, an array or {@link Iterable}, with the remaining arguments.
+   *
+   * <p>When {@code outputType} is non-null the handle takes an additional trailing array of that
+   * type, and each result is stored into it at the index of its receiver.</p>
+   *
+   * <p>An output array shorter than the receivers, when they are an array or a {@link Collection},
+   * fails with an {@link IllegalArgumentException} before any invocation.</p>
+   *
+   * @param target     target handle, taking the receiver first
+   * @param outputType output array type, or {@code null} to discard results
+   * @return batch handle
+   */
+  static MethodHandle batch(final MethodHandle target, final @Nullable Class<?> outputType) {
+    final MethodHandle fixed = target.asFixedArity();
+    final int arguments = fixed.type().parameterCount() - 1;
+    final Class<?> returnType = fixed.type().returnType();
+    // (Object receiver, Object... args)R
+    final MethodHandle element = fixed.asType(MethodType.genericMethodType(arguments + 1).changeReturnType(returnType));
+    final List<Class<?>> args = Collections.nCopies(arguments, Object.class);
+
+    // (Object output, int index, Object receiver, Object... args)void
+    final MethodHandle step;
+    if (outputType != null) {
+      final MethodHandle store = MethodHandles.arrayElementSetter(outputType)
+        .asType(MethodType.methodType(void.class, Object.class, int.class, returnType));
+      step = MethodHandles.collectArguments(store, 2, element);
+    } else {
+      step = MethodHandles.dropArguments(element.asType(element.type().changeReturnType(void.class)), 0, Object.class, int.class);
+    }
+
+    // (Object receivers, Object output, Object... args)void
+    final MethodHandle loop = MethodHandles.guardWithTest(
+      IS_ARRAY,
+      arrayLoop(step, args).asType(MethodType.genericMethodType(arguments + 2).changeReturnType(void.class)),
+      iterableLoop(step, args).asType(MethodType.genericMethodType(arguments + 2).changeReturnType(void.class))
+    );
+    final MethodHandle handle = outputType == null ? loop : MethodHandles.foldArguments(loop, CHECK_OUTPUT);
+
+    if (outputType == null) {
+      return MethodHandles.insertArguments(handle, 1, (Object) null);
+    }
+    // move the output array after the arguments
+    final int[] reorder = new int[arguments + 2];
+    reorder[1] = arguments + 1;
+    for (int i = 0; i < arguments; i++) {
+      reorder[i + 2] = i + 1;
+    }
+    final MethodType type = MethodType.genericMethodType(arguments + 2).changeReturnType(void.class);
+    return MethodHandles.permuteArguments(handle, type, reorder);
+  }
+
+  // (Object[] receivers, Object output, Object... args)void
+  private static MethodHandle arrayLoop(final MethodHandle step, final List<Class<?>> args) {
+    final MethodHandle iterations = MethodHandles.dropArguments(
+      MethodHandles.dropArguments(MethodHandles.arrayLength(Object[].class), 1, Object.class),
+      2,
+      args
+    );
+    // (Object output, int index, Object[] receivers, int index, Object... args)void
+    final MethodHandle element = MethodHandles.collectArguments(step, 2, MethodHandles.arrayElementGetter(Object[].class));
+    // (int index, Object[] receivers, Object output, Object... args)void
+    final int[] reorder = new int[args.size() + 4];
+    reorder[0] = 2;
+    reorder[1] = 0;
+    reorder[2] = 1;
+    reorder[3] = 0;
+    for (int i = 0; i < args.size(); i++) {
+      reorder[i + 4] = i + 3;
+    }
+    final MethodType bodyType = MethodType.methodType(void.class, int.class, Object[].class, Object.class).appendParameterTypes(args);
+    return MethodHandles.countedLoop(iterations, null, MethodHandles.permuteArguments(element, bodyType, reorder));
+  }
+
+  // (Iterable receivers, Object output, Object... args)void
+  private static MethodHandle iterableLoop(final MethodHandle step, final List<Class<?>> args) {
+    // (int index, Object receiver, Iterable receivers, Object output, Object... args)void
+    final int[] reorder = new int[args.size() + 3];
+    reorder[0] = 3;
+    reorder[1] = 0;
+    reorder[2] = 1;
+    for (int i = 0; i < args.size(); i++) {
+      reorder[i + 3] = i + 4;
+    }
+    final MethodType bodyType = MethodType.methodType(void.class, int.class, Object.class, Iterable.class, Object.class).appendParameterTypes(args);
+    final MethodHandle element = MethodHandles.permuteArguments(step, bodyType, reorder);
+    // the loop variable is the index of the next receiver
+    final MethodHandle next = MethodHandles.dropArguments(NEXT_INDEX, 1, bodyType.dropParameterTypes(0, 1).parameterList());
+    final MethodHandle loop = MethodHandles.iteratedLoop(null, null, MethodHandles.foldArguments(next, element));
+    return loop.asType(loop.type().changeReturnType(void.class));
+  }
+
+  private static int nextIndex(final int index) {
+    return index + 1;
+  }
+
+  private static void checkOutput(final Object receivers, final @Nullable Object output) {
+    if (output == null) {
+      return;
+    }
+    final int count;
+    if (receivers instanceof Object[]) {
+      count = ((Object[]) receivers).length;
+    } else if (receivers instanceof Collection) {
+      count = ((Collection<?>) receivers).size();
+    } else {
+      return; // checked by the output array's stores
+    }
+    if (Array.getLength(output) < count) {
+      throw new IllegalArgumentException("Output array of length " + Array.getLength(output) + " can't hold results for " + count + " receivers");
+    }
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactory;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.ConstructorInvoker;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldGetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Static;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the bytes allocated per call on the proxy and remapper hot paths with the per-thread
+ * allocation counter of {@link com.sun.management.ThreadMXBean}, and fails when any exceeds its
+ * budget.
+ *
+ * <p>Budgets are per call, after warm-up. Proxy calls with arguments may allocate the arguments
+ * array in {@link java.lang.reflect.Proxy} itself and constructors allocate the constructed object;
+ * the budgets are those object sizes with compressed oops, which are the same on every tested JDK.
+ * Each call may exceed its budget by {@link #MARGIN_BYTES} for counter noise, less than the
+ * smallest object, so one more allocation per call still fails.</p>
+ */
+class AllocationBudgetTest {
+  private static final int WARM_UP_CALLS = 50_000;
+  private static final int MEASURED_CALLS = 100_000;
+  private static final int MEASURED_ROUNDS = 3;
+  private static final double MARGIN_BYTES = 8;
+  private static final String MAPPINGS = "tiny\t2\t0\t" + MappingNamespace.MOJANG_PLUS_YARN + "\t" + MappingNamespace.SPIGOT + "\n"
+    + "c\tnamed/Target\t" + Target.class.getName().replace('.', '/') + "\n"
+    + "\tf\tLjava/lang/String;\tnamedValue\tvalue\n"
+    + "\tm\t(Ljava/lang/String;)Ljava/lang/String;\tnamedAppend\tappend\n";
+
+  private static com.sun.management.@Nullable ThreadMXBean threads;
+
+  private Object sink;
+
+  @BeforeAll
+  static void setup() {
+    final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "per-thread allocation counters are not available");
+    final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "per-thread allocation counters are not supported");
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+    threads = threadBean;
+  }
+
+  @Test
+  void testProxyAllocation() {
+    final TargetProxy proxy = ReflectionProxyFactory.create(ReflectionRemapper.noop(), this.getClass().getClassLoader())
+      .reflectionProxy(TargetProxy.class);
+    final Target target = new Target("value");
+    final String suffix = "!";
+
+    this.assertBudget("method", 24, () -> proxy.append(target, suffix));
+    this.assertBudget("getter", 24, () -> proxy.getValue(target));
+    this.assertBudget("setter", 24, () -> {
+      proxy.setValue(target, suffix);
+      return target;
+    });
+    this.assertBudget("static", 0, proxy::staticValue);
+    this.assertBudget("constructor", 48, () -> proxy.construct(suffix));
+    this.assertBudget("default", 48, () -> proxy.appendDefault(target, suffix));
+  }
+
+  @Test
+  void testRemapperAllocation() {
+    final ReflectionRemapper remapper = ReflectionRemapper.forMappings(
+      new ByteArrayInputStream(MAPPINGS.getBytes(StandardCharsets.UTF_8)),
+      MappingNamespace.MOJANG_PLUS_YARN,
+      MappingNamespace.SPIGOT
+    );
+    final Class<?>[] parameters = {String.class};
+    assertEquals(Target.class.getName(), remapper.remapClassName("named.Target"));
+    assertEquals("value", remapper.remapFieldName(Target.class, "namedValue"));
+    assertEquals("append", remapper.remapMethodName(Target.class, "namedAppend", parameters));
+    assertEquals("namedAppend", remapper.remapMethodName(Target.class, "namedAppend", Object.class));
+    assertEquals("namedAppend", remapper.remapMethodName(Target.class, "namedAppend"));
+    assertEquals("named", remapper.remapMethodName(Target.class, "named", parameters));
+
+    this.assertBudget("remapClassName", 0, () -> remapper.remapClassName("named.Target"));
+    this.assertBudget("remapClassName (unmapped)", 0, () -> remapper.remapClassName("named.Unmapped"));
+    this.assertBudget("remapFieldName", 0, () -> remapper.remapFieldName(Target.class, "namedValue"));
+    this.assertBudget("remapMethodName", 0, () -> remapper.remapMethodName(Target.class, "namedAppend", parameters));
+  }
+
+  private void assertBudget(final String name, final long budgetBytes, final Supplier<Object> call) {
+    for (int i = 0; i < WARM_UP_CALLS; i++) {
+      this.sink = call.get();
+    }
+    final com.sun.management.ThreadMXBean threads = AllocationBudgetTest.threads;
+    assertTrue(threads != null);
+    final long thread = Thread.currentThread().getId();
+    // best of several rounds, excluding allocations outside the measured code, i.e. by the JIT
+    double perCall = Double.MAX_VALUE;
+    for (int round = 0; round < MEASURED_ROUNDS; round++) {
+      final long start = threads.getThreadAllocatedBytes(thread);
+      for (int i = 0; i < MEASURED_CALLS; i++) {
+        this.sink = call.get();
+      }
+      perCall = Math.min(perCall, (double) (threads.getThreadAllocatedBytes(thread) - start) / MEASURED_CALLS);
+    }
+    final double bytesPerCall = perCall;
+    System.out.printf("%s: %.2f B/call (budget %d B)%n", name, bytesPerCall, budgetBytes);
+    assertTrue(bytesPerCall < budgetBytes + MARGIN_BYTES, () -> name + " allocated " + bytesPerCall + " bytes per call, budget is " + budgetBytes);
+  }
+
+  @Proxies(Target.class)
+  interface TargetProxy {
+    String append(Object instance, String suffix);
+
+    @FieldGetter("value")
+    String getValue(Object instance);
+
+    @FieldSetter("value")
+    void setValue(Object instance, String value);
+
+    @Static
+    String staticValue();
+
+    @ConstructorInvoker
+    Object construct(String value);
+
+    default String appendDefault(final Object instance, final String suffix) {
+      return this.append(instance, suffix);
+    }
+  }
+
+  private static final class Target {
+    private static final String STATIC_VALUE = "static";
+    private String value;
+
+    private Target(final String value) {
+      this.value = value;
+    }
+
+    private String append(final String suffix) {
+      return this.value;
+    }
+
+    private static String staticValue() {
+      return STATIC_VALUE;
+    }
+  }
+}
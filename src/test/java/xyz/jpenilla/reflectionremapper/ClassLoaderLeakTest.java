@@ -0,0 +1,153 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Test;
+import xyz.jpenilla.reflectionremapper.internal.util.ClassResolver;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactory;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyMetrics;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyVerifier;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldGetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassLoaderLeakTest {
+  private static final int RELOADS = 5;
+
+  @Test
+  void testReloadedLoadersAreCollected() throws Exception {
+    // shared across reloads, like a remapper, metrics or verifier owned by a library
+    final ReflectionRemapper remapper = ReflectionRemapper.noop();
+    final ReflectionProxyMetrics metrics = ReflectionProxyMetrics.create(1);
+    final ReflectionProxyVerifier verifier = ReflectionProxyVerifier.create(remapper);
+
+    final List<WeakReference<ClassLoader>> loaders = new ArrayList<>();
+    for (int i = 0; i < RELOADS; i++) {
+      loaders.add(load(remapper, metrics, verifier));
+    }
+    assertEquals(RELOADS, metrics.methods().size());
+
+    for (int i = 0; i < 50 && loaders.stream().anyMatch(loader -> loader.get() != null); i++) {
+      System.gc();
+      Thread.sleep(20);
+    }
+    assertTrue(loaders.stream().allMatch(loader -> loader.get() == null), "Reloaded class loaders were not collected");
+    assertTrue(metrics.methods().isEmpty());
+  }
+
+  @Test
+  void testResolvedClassesDoNotRetainLoaders() throws Exception {
+    final ClassResolver resolver = new ClassResolver(UnaryOperator.identity());
+    final WeakReference<ClassLoader> loader = resolve(resolver);
+
+    for (int i = 0; i < 50 && loader.get() != null; i++) {
+      System.gc();
+      Thread.sleep(20);
+    }
+    assertNull(loader.get(), "Class loader was retained by the class resolver");
+    assertSame(LeakTarget.class, resolver.resolve(LeakTarget.class.getName(), ClassLoaderLeakTest.class.getClassLoader()));
+  }
+
+  private static WeakReference<ClassLoader> resolve(final ClassResolver resolver) throws ClassNotFoundException {
+    final ClassLoader loader = new IsolatingClassLoader(ClassLoaderLeakTest.class.getClassLoader());
+    final Class<?> target = resolver.resolve(LeakTarget.class.getName(), loader);
+    assertSame(loader, target.getClassLoader());
+    assertSame(target, resolver.resolve(LeakTarget.class.getName(), loader));
+    return new WeakReference<>(loader);
+  }
+
+  private static WeakReference<ClassLoader> load(
+    final ReflectionRemapper remapper,
+    final ReflectionProxyMetrics metrics,
+    final ReflectionProxyVerifier verifier
+  ) throws ReflectiveOperationException {
+    final ClassLoader loader = new IsolatingClassLoader(ClassLoaderLeakTest.class.getClassLoader());
+    final Class<?> proxyInterface = Class.forName(LeakProxy.class.getName(), true, loader);
+    final Object target = Class.forName(LeakTarget.class.getName(), true, loader).getDeclaredConstructor().newInstance();
+
+    assertTrue(verifier.verify(Collections.singletonList(proxyInterface)).isEmpty());
+    final Object proxy = ReflectionProxyFactory.create(remapper, loader).withMetrics(metrics).reflectionProxy(proxyInterface);
+    final Method value = proxyInterface.getMethod("value", Object.class);
+    assertEquals(42, value.invoke(proxy, target));
+    return new WeakReference<>(loader);
+  }
+
+  @Proxies(className = "xyz.jpenilla.reflectionremapper.ClassLoaderLeakTest$LeakTarget")
+  public interface LeakProxy {
+    @FieldGetter("value")
+    int value(Object instance);
+  }
+
+  public static final class LeakTarget {
+    private final int value = 42;
+  }
+
+  /**
+   * Defines its own copies of {@link LeakProxy} and {@link LeakTarget}, like a plugin class loader.
+   */
+  private static final class IsolatingClassLoader extends ClassLoader {
+    IsolatingClassLoader(final ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+      if (!name.equals(LeakProxy.class.getName()) && !name.equals(LeakTarget.class.getName())) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (this.getClassLoadingLock(name)) {
+        final Class<?> loaded = this.findLoadedClass(name);
+        if (loaded != null) {
+          return loaded;
+        }
+        final byte[] bytes = this.readClass(name);
+        return this.defineClass(name, bytes, 0, bytes.length);
+      }
+    }
+
+    private byte[] readClass(final String name) throws ClassNotFoundException {
+      try (InputStream in = this.getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+        if (in == null) {
+          throw new ClassNotFoundException(name);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+      } catch (final IOException ex) {
+        throw new ClassNotFoundException(name, ex);
+      }
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ClassNamePreprocessorsTest {
+  @Test
+  void testPrefixRewrite() {
+    final Map<String, String> rewrites = new HashMap<>();
+    rewrites.put("libs.nm.", "net.minecraft.");
+    rewrites.put("libs.nm.server.", "net.minecraft.server.level.");
+    final UnaryOperator<String> preprocessor = ClassNamePreprocessors.prefixRewrite(rewrites);
+
+    assertEquals("net.minecraft.core.BlockPos", preprocessor.apply("libs.nm.core.BlockPos"));
+    assertEquals("net.minecraft.server.level.ServerPlayer", preprocessor.apply("libs.nm.server.ServerPlayer"));
+    final String unmatched = "java.lang.String";
+    assertSame(unmatched, preprocessor.apply(unmatched));
+  }
+
+  @Test
+  void testMemoized() {
+    final int[] calls = {0};
+    final ReflectionRemapper remapper = ReflectionRemapper.noop().withClassNamePreprocessor(name -> {
+      calls[0]++;
+      return name.replace("libs.", "");
+    });
+
+    assertEquals("a.B", remapper.remapClassName("libs.a.B"));
+    assertEquals("a.B", remapper.remapClassName("libs.a.B"));
+    assertEquals(1, calls[0]);
+  }
+
+  @Test
+  void testMemoizedNamesAreEvicted() {
+    final int[] calls = {0};
+    final ReflectionRemapper remapper = ReflectionRemapper.noop().withClassNamePreprocessor(name -> {
+      calls[0]++;
+      return name.replace("libs.", "");
+    });
+
+    // far more names than are cached, with one name used throughout
+    for (int i = 0; i < 10_000; i++) {
+      assertEquals("a.Hot", remapper.remapClassName("libs.a.Hot"));
+      assertEquals("a.B" + i, remapper.remapClassName("libs.a.B" + i));
+    }
+    assertEquals(10_001, calls[0]);
+
+    // recent names are still cached once the cache is full
+    assertEquals("a.B9999", remapper.remapClassName("libs.a.B9999"));
+    assertEquals("a.Hot", remapper.remapClassName("libs.a.Hot"));
+    assertEquals(10_001, calls[0]);
+    assertEquals("a.B0", remapper.remapClassName("libs.a.B0"));
+    assertEquals(10_002, calls[0]);
+  }
+}
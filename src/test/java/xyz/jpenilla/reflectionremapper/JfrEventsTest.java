@@ -0,0 +1,175 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactory;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldGetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Records the JFR events emitted while loading mappings and resolving a proxy, including when
+ * either fails.
+ *
+ * <p>JFR is used reflectively, as tests are compiled for Java 8. The test is skipped when JFR or the
+ * Java 11 event classes are not available.</p>
+ */
+class JfrEventsTest {
+  private static final String PREFIX = "xyz.jpenilla.reflectionremapper.";
+
+  @Test
+  void testEvents(@TempDir final Path tempDir) throws ReflectiveOperationException {
+    final List<?> events = record(tempDir, () -> {
+      ReflectionRemapper.forMappings(
+        new ByteArrayInputStream(SyntheticMappings.create().classes(10).toByteArray()),
+        MappingNamespace.MOJANG_PLUS_YARN,
+        MappingNamespace.SPIGOT
+      );
+      final JfrTargetProxy proxy = ReflectionProxyFactory.create(ReflectionRemapper.noop(), this.getClass().getClassLoader())
+        .reflectionProxy(JfrTargetProxy.class);
+      assertEquals("value", proxy.value(new JfrTarget()));
+    });
+
+    final Object parse = single(events, "MappingsParse");
+    assertEquals(MappingNamespace.MOJANG_PLUS_YARN, value(parse, "fromNamespace"));
+    assertEquals(MappingNamespace.SPIGOT, value(parse, "toNamespace"));
+    final Object index = single(events, "MappingsIndex");
+    assertEquals(MappingNamespace.SPIGOT, value(index, "toNamespace"));
+
+    final Object scan = single(events, "ProxyScan");
+    assertEquals(JfrTargetProxy.class.getName(), className(value(scan, "proxyInterface")));
+    assertEquals(JfrTarget.class.getName(), className(value(scan, "proxiedClass")));
+
+    final Object lookup = single(events, "MemberLookup");
+    assertEquals(JfrTarget.class.getName(), className(value(lookup, "proxiedClass")));
+    assertEquals("value", value(lookup, "memberName"));
+    final Object unreflect = single(events, "Unreflect");
+    assertEquals("value", value(unreflect, "memberName"));
+
+    for (final Object event : new Object[]{parse, index, scan, lookup, unreflect}) {
+      final Duration duration = (Duration) invoke(event, "getDuration");
+      assertFalse(duration.isNegative());
+    }
+    assertTrue(((Duration) invoke(parse, "getDuration")).toNanos() > 0);
+  }
+
+  @Test
+  void testEventsOnFailure(@TempDir final Path tempDir) throws ReflectiveOperationException {
+    final List<?> events = record(tempDir, () -> {
+      assertThrows(RuntimeException.class, () -> ReflectionRemapper.forMappings(
+        new ByteArrayInputStream("tiny\t2\t0\tfrom\tto\nc\tOnlyOneName\n".getBytes(StandardCharsets.UTF_8)),
+        "from",
+        "to"
+      ));
+      assertThrows(IllegalArgumentException.class, () -> ReflectionProxyFactory.create(ReflectionRemapper.noop(), this.getClass().getClassLoader())
+        .reflectionProxy(BrokenJfrTargetProxy.class));
+    });
+
+    // the failed parse and scan are still recorded
+    final Object parse = single(events, "MappingsParse");
+    assertEquals("from", value(parse, "fromNamespace"));
+    final Object scan = single(events, "ProxyScan");
+    assertEquals(BrokenJfrTargetProxy.class.getName(), className(value(scan, "proxyInterface")));
+  }
+
+  private static List<?> record(final Path tempDir, final Runnable action) throws ReflectiveOperationException {
+    assumeTrue(isPresent("jdk.jfr.Recording"), "JFR is not available");
+    assumeTrue(isPresent(PREFIX + "internal.jfr.MappingsParseEvent"), "JFR events are not on the classpath");
+
+    final Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+    final Object recording = recordingClass.getConstructor().newInstance();
+    final Path dump = tempDir.resolve("events.jfr");
+    try {
+      for (final String event : new String[]{"MappingsParse", "MappingsIndex", "ProxyScan", "MemberLookup", "Unreflect"}) {
+        recordingClass.getMethod("enable", String.class).invoke(recording, PREFIX + event);
+      }
+      recordingClass.getMethod("start").invoke(recording);
+      action.run();
+      recordingClass.getMethod("stop").invoke(recording);
+      recordingClass.getMethod("dump", Path.class).invoke(recording, dump);
+    } finally {
+      recordingClass.getMethod("close").invoke(recording);
+    }
+
+    return (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+      .getMethod("readAllEvents", Path.class)
+      .invoke(null, dump);
+  }
+
+  private static Object single(final List<?> events, final String name) throws ReflectiveOperationException {
+    final List<Object> matching = new ArrayList<>();
+    for (final Object event : events) {
+      final Object type = invoke(event, "getEventType");
+      if ((PREFIX + name).equals(invoke(type, "getName"))) {
+        matching.add(event);
+      }
+    }
+    assertEquals(1, matching.size(), () -> "Expected a single " + name + " event, got " + matching);
+    return matching.get(0);
+  }
+
+  private static Object value(final Object event, final String field) throws ReflectiveOperationException {
+    return event.getClass().getMethod("getValue", String.class).invoke(event, field);
+  }
+
+  private static Object className(final Object recordedClass) throws ReflectiveOperationException {
+    return invoke(recordedClass, "getName");
+  }
+
+  private static Object invoke(final Object target, final String method) throws ReflectiveOperationException {
+    return target.getClass().getMethod(method).invoke(target);
+  }
+
+  private static boolean isPresent(final String className) {
+    try {
+      Class.forName(className, false, JfrEventsTest.class.getClassLoader());
+      return true;
+    } catch (final ClassNotFoundException ex) {
+      return false;
+    }
+  }
+
+  @Proxies(JfrTarget.class)
+  interface JfrTargetProxy {
+    @FieldGetter("value")
+    String value(Object instance);
+  }
+
+  @Proxies(JfrTarget.class)
+  interface BrokenJfrTargetProxy {
+    @FieldGetter("missing")
+    String missing(Object instance);
+  }
+
+  private static final class JfrTarget {
+    private final String value = "value";
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads {@link SyntheticMappings} of increasing size, to catch load time or memory growing faster
+ * than the mappings do.
+ *
+ * <p>Load time is only checked when the {@code reflectionremapper.scaling.classes} system property
+ * sets the larger size, i.e. to 500,000 classes, as wall-clock timings are too noisy for every
+ * build.</p>
+ */
+class MappingsScalingTest {
+  private static final String LARGE_PROPERTY = "reflectionremapper.scaling.classes";
+  private static final int SMALL = 5_000;
+  private static final int RUNS = 3;
+
+  @Test
+  void testSyntheticMappings(@TempDir final Path tempDir) throws IOException {
+    final SyntheticMappings synthetic = SyntheticMappings.create().classes(2_000).namespaces(3);
+    final Path file = tempDir.resolve("synthetic.tiny");
+    synthetic.write(file);
+
+    final ReflectionRemapper mapped = ReflectionRemapper.forMappings(file, MappingNamespace.MOJANG_PLUS_YARN, MappingNamespace.SPIGOT);
+    final ReflectionRemapper streamed = ReflectionRemapper.forMappings(
+      new ByteArrayInputStream(synthetic.toByteArray()),
+      MappingNamespace.MOJANG_PLUS_YARN,
+      MappingNamespace.SPIGOT
+    );
+    for (final ReflectionRemapper remapper : new ReflectionRemapper[]{mapped, streamed}) {
+      final ReflectionRemapperStats stats = remapper.stats();
+      assertEquals(synthetic.classes(), stats.classCount());
+      assertEquals(synthetic.fields(), stats.fieldCount());
+      assertEquals(synthetic.methods(), stats.methodCount());
+      assertEquals(SyntheticMappings.className(1234, 1), remapper.remapClassName(SyntheticMappings.className(1234, 0)));
+    }
+    assertSameMappings(streamed, mapped);
+    assertEquals(streamed.stats().estimatedRetainedBytes(), mapped.stats().estimatedRetainedBytes());
+
+    final MultiNamespaceMappings multi = MultiNamespaceMappings.load(file);
+    assertEquals(synthetic.namespaceNames(), multi.namespaces());
+    assertEquals(SyntheticMappings.className(42, 2), multi.remapper(MappingNamespace.SPIGOT, "ns2").remapClassName(SyntheticMappings.className(42, 1)));
+  }
+
+  @Test
+  void testTinyV2ReaderMatchesMappingIo(@TempDir final Path tempDir) throws IOException {
+    final SyntheticMappings synthetic = SyntheticMappings.create().classes(500).namespaces(3).metadata(true);
+    final Path file = tempDir.resolve("synthetic.tiny");
+    synthetic.write(file);
+    // read without a preset source namespace, so every namespace can be mapped from
+    final MemoryMappingTree tree = new MemoryMappingTree();
+    MappingReader.read(new InputStreamReader(new ByteArrayInputStream(synthetic.toByteArray()), StandardCharsets.UTF_8), tree);
+
+    for (final String from : synthetic.namespaceNames()) {
+      for (final String to : synthetic.namespaceNames()) {
+        if (from.equals(to)) {
+          continue;
+        }
+        final @Nullable ReflectionRemapper read = TinyV2Reader.read(file, from, to);
+        assertNotNull(read, () -> "TinyV2Reader did not read " + from + " -> " + to);
+        assertEquals(synthetic.classes(), read.stats().classCount());
+        assertSameMappings(ReflectionRemapperImpl.fromMappingTree(tree, from, to, 0, 0), read);
+      }
+    }
+  }
+
+  @Test
+  void testManyNamespaces(@TempDir final Path tempDir) throws IOException {
+    final SyntheticMappings synthetic = SyntheticMappings.create().classes(100).namespaces(9);
+    final Path file = tempDir.resolve("synthetic.tiny");
+    synthetic.write(file);
+
+    final ReflectionRemapper remapper = ReflectionRemapper.forMappings(file, MappingNamespace.MOJANG_PLUS_YARN, "ns8");
+    assertEquals(synthetic.classes(), remapper.stats().classCount());
+    assertEquals(synthetic.methods(), remapper.stats().methodCount());
+    assertEquals(SyntheticMappings.className(42, 8), remapper.remapClassName(SyntheticMappings.className(42, 0)));
+  }
+
+  @Test
+  void testRetainedSizeScaling(@TempDir final Path tempDir) throws IOException {
+    final Path small = tempDir.resolve("small.tiny");
+    final Path large = tempDir.resolve("large.tiny");
+    SyntheticMappings.create().classes(SMALL / 5).write(small);
+    SyntheticMappings.create().classes(SMALL).write(large);
+
+    final double smallBytesPerClass = (double) load(small).stats().estimatedRetainedBytes() / (SMALL / 5);
+    final double largeBytesPerClass = (double) load(large).stats().estimatedRetainedBytes() / SMALL;
+
+    // string pooling makes memory grow slightly slower than the mappings, never faster
+    assertTrue(largeBytesPerClass <= smallBytesPerClass * 1.1D, "Retained size grows faster than the number of classes");
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = LARGE_PROPERTY, matches = "[0-9]+")
+  void testLoadScaling(@TempDir final Path tempDir) throws IOException {
+    final int largeClasses = Integer.getInteger(LARGE_PROPERTY);
+    final Path small = tempDir.resolve("small.tiny");
+    final Path large = tempDir.resolve("large.tiny");
+    SyntheticMappings.create().classes(SMALL).write(small);
+    SyntheticMappings.create().classes(largeClasses).write(large);
+
+    for (int i = 0; i < RUNS; i++) {
+      load(small); // warm up
+    }
+
+    final Result smallResult = measure(small, SMALL);
+    final Result largeResult = measure(large, largeClasses);
+    System.out.println(SMALL + " classes: " + smallResult);
+    System.out.println(largeClasses + " classes: " + largeResult);
+
+    // string pooling makes memory grow slightly slower than the mappings, never faster
+    assertTrue(largeResult.bytesPerClass <= smallResult.bytesPerClass * 1.1D, "Retained size grows faster than the number of classes");
+    // generous, as timings are noisy; a quadratic step would exceed this by far
+    assertTrue(largeResult.nanosPerClass <= smallResult.nanosPerClass * 3.0D, "Load time grows faster than the number of classes");
+  }
+
+  private static Result measure(final Path file, final int classes) {
+    long best = Long.MAX_VALUE;
+    ReflectionRemapperStats stats = null;
+    for (int i = 0; i < RUNS; i++) {
+      final long start = System.nanoTime();
+      stats = load(file).stats();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    assertEquals(classes, stats.classCount());
+    return new Result((double) best / classes, (double) stats.estimatedRetainedBytes() / classes);
+  }
+
+  /**
+   * Asserts that both remappers hold the same class, field and method mappings.
+   *
+   * @param expected remapper read by mapping-io
+   * @param actual   remapper to check
+   */
+  static void assertSameMappings(final ReflectionRemapper expected, final ReflectionRemapper actual) {
+    final Map<String, ReflectionRemapperImpl.ClassMapping> expectedMappings = classMappings(expected);
+    final Map<String, ReflectionRemapperImpl.ClassMapping> actualMappings = classMappings(actual);
+    assertEquals(expectedMappings.keySet(), actualMappings.keySet());
+    for (final ReflectionRemapperImpl.ClassMapping mapping : expectedMappings.values()) {
+      final ReflectionRemapperImpl.ClassMapping other = actualMappings.get(mapping.obfName());
+      assertEquals(mapping.deobfName(), other.deobfName());
+      assertEquals(mapping.fieldsDeobfToObf(), other.fieldsDeobfToObf(), () -> "Fields of " + mapping.deobfName());
+      assertEquals(mapping.methods(), other.methods(), () -> "Methods of " + mapping.deobfName());
+    }
+  }
+
+  private static Map<String, ReflectionRemapperImpl.ClassMapping> classMappings(final ReflectionRemapper remapper) {
+    return ((ReflectionRemapperImpl) remapper).classMappings().stream()
+      .collect(Collectors.toMap(ReflectionRemapperImpl.ClassMapping::obfName, Function.identity()));
+  }
+
+  private static ReflectionRemapper load(final Path file) {
+    return ReflectionRemapper.forMappings(file, MappingNamespace.MOJANG_PLUS_YARN, MappingNamespace.SPIGOT);
+  }
+
+  private static final class Result {
+    private final double nanosPerClass;
+    private final double bytesPerClass;
+
+    Result(final double nanosPerClass, final double bytesPerClass) {
+      this.nanosPerClass = nanosPerClass;
+      this.bytesPerClass = bytesPerClass;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%.0f ns/class, %.0f bytes/class", this.nanosPerClass, this.bytesPerClass);
+    }
+  }
+}
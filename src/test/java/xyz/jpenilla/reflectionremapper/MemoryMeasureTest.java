@@ -20,37 +20,109 @@ package xyz.jpenilla.reflectionremapper;
 import com.volkhart.memory.MemoryMeasurer;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import xyz.jpenilla.reflectionremapper.internal.util.Util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MemoryMeasureTest {
   @Test
   void testMappingsLoadingAndSize() {
     final long start = System.nanoTime();
 
-    final ReflectionRemapper remapper;
+    final ReflectionRemapper remapper = this.loadMappings();
+
+    final long diff = System.nanoTime() - start;
+    System.out.println(diff / 1000000000.00D + "s");
+
+    printSize(remapper);
+
+    final ReflectionRemapperStats stats = remapper.stats();
+    System.out.println(stats);
+    assertTrue(stats.classCount() > 0);
+    assertTrue(stats.estimatedRetainedBytes() > 0);
+
+    final String serverPlayer = remapper.remapClassName("net.minecraft.server.level.ServerPlayer");
+    assertEquals("net.minecraft.server.level.EntityPlayer", serverPlayer);
+    assertEquals(
+      "(Lnet/minecraft/server/level/EntityPlayer;[ILjava/lang/String;)V",
+      remapper.remapDescriptor("(Lnet/minecraft/server/level/ServerPlayer;[ILjava/lang/String;)V")
+    );
+  }
+
+  @Test
+  void testRetain() {
+    final ReflectionRemapper remapper = this.loadMappings()
+      .retain(name -> name.startsWith("net.minecraft.server.level."));
+    printSize(remapper);
+
+    assertEquals("net.minecraft.server.level.EntityPlayer", remapper.remapClassName("net.minecraft.server.level.ServerPlayer"));
+    assertEquals("net.minecraft.core.BlockPos", remapper.remapClassName("net.minecraft.core.BlockPos"));
+  }
+
+  @Test
+  void testTinyV2Reader(@TempDir final Path tempDir) throws IOException {
+    final Path file = tempDir.resolve("mappings.tiny");
     try (final InputStream mappings = this.getClass().getClassLoader().getResourceAsStream("mappings.tiny")) {
       if (mappings == null) {
         throw new IllegalStateException("mappings.tiny not found");
       }
-      remapper = ReflectionRemapper.forPaperReobfMappings(mappings);
+      Files.copy(mappings, file);
+    }
+
+    final ReflectionRemapper mapped = ReflectionRemapper.forPaperReobfMappings(file);
+    final ReflectionRemapper streamed = this.loadMappings();
+    printSize(mapped);
+
+    final ReflectionRemapperStats mappedStats = mapped.stats();
+    final ReflectionRemapperStats streamedStats = streamed.stats();
+    System.out.println(mappedStats);
+    MappingsScalingTest.assertSameMappings(streamed, mapped);
+    assertEquals(streamedStats.estimatedRetainedBytes(), mappedStats.estimatedRetainedBytes());
+    assertEquals("net.minecraft.server.level.EntityPlayer", mapped.remapClassName("net.minecraft.server.level.ServerPlayer"));
+  }
+
+  @Test
+  void testMultiNamespace() {
+    final MultiNamespaceMappings mappings;
+    try (final InputStream stream = this.getClass().getClassLoader().getResourceAsStream("mappings.tiny")) {
+      if (stream == null) {
+        throw new IllegalStateException("mappings.tiny not found");
+      }
+      mappings = MultiNamespaceMappings.load(stream);
     } catch (final IOException ex) {
-      Util.sneakyThrow(ex);
-      return;
+      throw Util.sneakyThrow(ex);
     }
+    System.out.println(mappings.namespaces());
+    final String from = mappings.namespaces().get(0);
 
-    final long diff = System.nanoTime() - start;
-    System.out.println(diff / 1000000000.00D + "s");
+    final ReflectionRemapper remapper = mappings.remapper(from, "spigot");
+    assertEquals("net.minecraft.server.level.EntityPlayer", remapper.remapClassName("net.minecraft.server.level.ServerPlayer"));
+    final ReflectionRemapper reverse = mappings.remapper("spigot", from);
+    assertEquals("net.minecraft.server.level.ServerPlayer", reverse.remapClassName("net.minecraft.server.level.EntityPlayer"));
+    assertEquals("net.minecraft.server.level.EntityPlayer", remapper.retain(name -> true).remapClassName("net.minecraft.server.level.ServerPlayer"));
+  }
+
+  private ReflectionRemapper loadMappings() {
+    try (final InputStream mappings = this.getClass().getClassLoader().getResourceAsStream("mappings.tiny")) {
+      if (mappings == null) {
+        throw new IllegalStateException("mappings.tiny not found");
+      }
+      return ReflectionRemapper.forPaperReobfMappings(mappings);
+    } catch (final IOException ex) {
+      throw Util.sneakyThrow(ex);
+    }
+  }
 
+  private static void printSize(final ReflectionRemapper remapper) {
     try {
       System.out.println(MemoryMeasurer.measureBytes(remapper) / 1000.0D / 1000.0D + "MB");
     } catch (final UnsupportedClassVersionError ex) {
       new RuntimeException("MemoryMeasurer does not work on this JDK", ex).printStackTrace();
     }
-
-    final String serverPlayer = remapper.remapClassName("net.minecraft.server.level.ServerPlayer");
-    assertEquals("net.minecraft.server.level.EntityPlayer", serverPlayer);
   }
 }
@@ -17,12 +17,37 @@
  */
 package xyz.jpenilla.reflectionremapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyBinder;
 import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactory;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactoryStats;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyMetrics;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyVerifier;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.BatchInvoker;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.ConstructorInvoker;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Descriptor;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldGetter;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSnapshot;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.MethodName;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
 import xyz.jpenilla.reflectionremapper.proxy.annotation.Static;
@@ -30,8 +55,17 @@ import xyz.jpenilla.reflectionremapper.proxy.annotation.Type;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ReflectionProxyTest {
+  private static boolean warmUpTargetInitialized;
+
   private ReflectionProxyFactory factory() {
     return ReflectionProxyFactory.create(
       ReflectionRemapper.noop(),
@@ -42,6 +76,10 @@ class ReflectionProxyTest {
   @Proxies(String.class)
   interface StringProxy {
     char[] toCharArray(String instance);
+
+    default String concat(final String a, final String b, final String c) {
+      return new String(this.toCharArray(a)) + b + c;
+    }
   }
 
   @Test
@@ -49,6 +87,7 @@ class ReflectionProxyTest {
     final StringProxy stringProxy = this.factory().reflectionProxy(StringProxy.class);
     final String string = "SomeString";
     assertArrayEquals(string.toCharArray(), stringProxy.toCharArray(string));
+    assertEquals("abc", stringProxy.concat("a", "b", "c"));
   }
 
   @Test
@@ -61,6 +100,7 @@ class ReflectionProxyTest {
     final AnotherPrivateClass anotherPrivateClass = new AnotherPrivateClass();
     assertEquals(privateClass.useSecretClass(anotherPrivateClass), privateClassProxy.useSecretClass(privateClass, anotherPrivateClass));
     assertEquals(privateClass.useSecretClass(anotherPrivateClass), privateClassProxy.useSecretClass0(privateClass, anotherPrivateClass));
+    assertEquals(privateClass.useSecretClass(anotherPrivateClass), privateClassProxy.useSecretClass1(privateClass, anotherPrivateClass));
 
     final String newSecret = "New secret string!";
     privateClassProxy.setSecret(privateClass, newSecret);
@@ -81,6 +121,345 @@ class ReflectionProxyTest {
     final String expected = "abc123xyz";
     final PrivateClass instance = (PrivateClass) proxy.construct(expected);
     assertEquals(expected, instance.secret());
+    assertEquals(expected, ((PrivateClass) proxy.constructFromDescriptor(expected)).secret());
+  }
+
+  @Test
+  void testFactoryStats() {
+    final ReflectionProxyFactory factory = this.factory();
+    factory.reflectionProxy(StringProxy.class);
+    factory.reflectionProxy(PrivateClassProxy.class);
+
+    final ReflectionProxyFactoryStats stats = factory.stats();
+    assertEquals(2, stats.proxyCount());
+    assertEquals(8, stats.methodCount());
+    assertEquals(4, stats.fieldAccessorCount());
+  }
+
+  @Test
+  void testResolveClass() throws ClassNotFoundException {
+    final ReflectionProxyFactory factory = this.factory();
+    assertEquals(PrivateClass.class, factory.resolveClass("xyz.jpenilla.reflectionremapper.ReflectionProxyTest$PrivateClass"));
+    assertEquals(PrivateClass[].class, factory.resolveClass("[Lxyz.jpenilla.reflectionremapper.ReflectionProxyTest$PrivateClass;"));
+    assertThrows(ClassNotFoundException.class, () -> factory.resolveClass("xyz.jpenilla.reflectionremapper.ReflectionProxyTest$Missing"));
+  }
+
+  @Test
+  void testAsyncFactory() {
+    final CompletableFuture<ReflectionRemapper> remapper = new CompletableFuture<>();
+    final ReflectionProxyFactory factory = ReflectionProxyFactory.create(remapper, this.getClass().getClassLoader());
+    final CompletableFuture<StringProxy> proxy = factory.reflectionProxyAsync(StringProxy.class);
+    assertFalse(proxy.isDone());
+
+    remapper.complete(ReflectionRemapper.noop());
+    assertArrayEquals("abc".toCharArray(), proxy.join().toCharArray("abc"));
+  }
+
+  @Test
+  void testBoundProxy() {
+    final ReflectionProxyBinder<BoundPrivateClassProxy> binder = this.factory().reflectionProxyBinder(BoundPrivateClassProxy.class);
+    final PrivateClass privateClass = new PrivateClass("secret");
+    final BoundPrivateClassProxy proxy = binder.bind(privateClass);
+
+    assertEquals("secret", proxy.secret());
+    proxy.setSecret("bound secret");
+    assertEquals("bound secret", proxy.getSecret());
+    final AnotherPrivateClass anotherPrivateClass = new AnotherPrivateClass();
+    assertEquals(privateClass.useSecretClass(anotherPrivateClass), proxy.useSecretClass(anotherPrivateClass));
+    assertEquals(PrivateClass.staticMethod(), proxy.staticMethod());
+    assertEquals("bound secret!", proxy.exclaim());
+
+    assertThrows(IllegalArgumentException.class, () -> binder.bind("not a PrivateClass"));
+  }
+
+  @Test
+  void testMetrics() throws NoSuchMethodException {
+    final ReflectionProxyMetrics metrics = ReflectionProxyMetrics.create(1);
+    final StringProxy stringProxy = this.factory().withMetrics(metrics).reflectionProxy(StringProxy.class);
+    stringProxy.toCharArray("a");
+    stringProxy.toCharArray("b");
+    assertThrows(NullPointerException.class, () -> stringProxy.toCharArray(null));
+
+    final ReflectionProxyMetrics.MethodMetrics methodMetrics = metrics.method(StringProxy.class.getDeclaredMethod("toCharArray", String.class));
+    assertNotNull(methodMetrics);
+    assertEquals(3, methodMetrics.invocationCount());
+    assertEquals(1, methodMetrics.exceptionCount());
+    assertEquals(3, methodMetrics.sampleCount());
+    assertEquals(3, Arrays.stream(methodMetrics.latencyHistogram()).sum());
+
+    stringProxy.concat("a", "b", "c");
+    final ReflectionProxyMetrics.MethodMetrics defaultMetrics = metrics.method(StringProxy.class.getDeclaredMethod("concat", String.class, String.class, String.class));
+    assertNotNull(defaultMetrics);
+    assertEquals(1, defaultMetrics.invocationCount());
+  }
+
+  @Test
+  void testVerifier() {
+    final ReflectionProxyVerifier verifier = ReflectionProxyVerifier.create(ReflectionRemapper.noop());
+    assertEquals(Collections.emptyList(), verifier.verify(Arrays.asList(StringProxy.class, PrivateClassProxy.class)));
+    assertEquals(Collections.emptyList(), verifier.verifyBound(Collections.singletonList(BoundPrivateClassProxy.class)));
+
+    final List<ReflectionProxyVerifier.Problem> problems = verifier.verify(Arrays.asList(BrokenProxy.class, MissingClassProxy.class));
+    assertEquals(
+      Arrays.asList(
+        "xyz.jpenilla.reflectionremapper.ReflectionProxyTest$BrokenProxy#missingField",
+        "xyz.jpenilla.reflectionremapper.ReflectionProxyTest$BrokenProxy#missingMethod",
+        "xyz.jpenilla.reflectionremapper.ReflectionProxyTest$MissingClassProxy"
+      ),
+      problems.stream().map(problem -> problem.toString().substring(0, problem.toString().indexOf(':'))).collect(Collectors.toList())
+    );
+  }
+
+  @Proxies(className = "xyz.jpenilla.reflectionremapper.ReflectionProxyTest$PrivateClass")
+  interface BrokenProxy {
+    String secret(Object instance);
+
+    String missingMethod(Object instance);
+
+    @FieldGetter("missing")
+    String missingField(Object instance);
+  }
+
+  @Proxies(className = "xyz.jpenilla.reflectionremapper.ReflectionProxyTest$Missing")
+  interface MissingClassProxy {
+  }
+
+  @Test
+  void testVerifierReportsUnloadableClasses(@TempDir final Path tempDir) throws IOException {
+    final String entry = UnloadableProxy.class.getName().replace('.', '/') + ".class";
+    final Path jar = tempDir.resolve("proxies.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+         InputStream in = Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(entry))) {
+      out.putNextEntry(new JarEntry(entry));
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+
+    // StringProxy, the super interface, is not in the jar or visible to its loader
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+      final List<ReflectionProxyVerifier.Problem> problems = ReflectionProxyVerifier.create(ReflectionRemapper.noop())
+        .verifyJar(jar, loader);
+      assertEquals(1, problems.size());
+      final ReflectionProxyVerifier.Problem problem = problems.get(0);
+      assertEquals(UnloadableProxy.class.getName(), problem.interfaceName());
+      assertNull(problem.proxyInterface());
+      assertInstanceOf(NoClassDefFoundError.class, problem.cause());
+    }
+  }
+
+  @Proxies(String.class)
+  interface UnloadableProxy extends StringProxy {
+  }
+
+  @Test
+  void testFieldSnapshot() {
+    final EntityProxy proxy = this.factory().reflectionProxy(EntityProxy.class);
+    final Entity entity = new Entity("zombie", 1, 2.5, -3);
+
+    final double[] position = new double[3];
+    proxy.position(entity, position);
+    assertArrayEquals(new double[]{1, 2.5, -3}, position);
+    assertArrayEquals(new Object[]{"zombie", 1.0D}, proxy.state(entity));
+
+    final Entity.Position record = proxy.positionRecord(entity);
+    assertEquals(2.5, record.y);
+    assertEquals(-3, record.z);
+  }
+
+  @Proxies(Entity.class)
+  interface EntityProxy {
+    @FieldSnapshot({"x", "y", "z"})
+    void position(Object instance, double[] out);
+
+    @FieldSnapshot({"name", "x"})
+    Object[] state(Object instance);
+
+    @FieldSnapshot({"x", "y", "z"})
+    Entity.Position positionRecord(Object instance);
+  }
+
+  private static final class Entity {
+    private final String name;
+    private final double x;
+    private final double y;
+    private final int z;
+
+    private Entity(final String name, final double x, final double y, final int z) {
+      this.name = name;
+      this.x = x;
+      this.y = y;
+      this.z = z;
+    }
+
+    private static final class Position {
+      private final double x;
+      private final double y;
+      private final double z;
+
+      private Position(final double x, final double y, final double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+      }
+    }
+  }
+
+  @Test
+  void testBatchInvoker() {
+    final CounterProxy proxy = this.factory().reflectionProxy(CounterProxy.class);
+    final Counter[] counters = {new Counter(1), new Counter(2), new Counter(3)};
+
+    final long[] out = new long[counters.length];
+    proxy.addAll(counters, 10, out);
+    assertArrayEquals(new long[]{11, 12, 13}, out);
+    // a short output array fails before any receiver is invoked
+    assertThrows(IllegalArgumentException.class, () -> proxy.addAll(counters, 10, new long[2]));
+    assertEquals(11, counters[0].value);
+
+    proxy.addEach(Arrays.asList(counters), 5);
+    assertEquals(16, counters[0].value);
+    assertEquals(18, counters[2].value);
+
+    assertThrows(IllegalArgumentException.class, () -> this.factory().reflectionProxy(BrokenCounterProxy.class));
+  }
+
+  @Proxies(Counter.class)
+  interface CounterProxy {
+    @BatchInvoker(output = true)
+    @MethodName("add")
+    void addAll(Object[] instances, int amount, long[] out);
+
+    @BatchInvoker
+    @MethodName("add")
+    void addEach(Iterable<?> instances, int amount);
+  }
+
+  @Proxies(Counter.class)
+  interface BrokenCounterProxy {
+    @BatchInvoker
+    @MethodName("add")
+    void addAll(int[] instances, int amount);
+  }
+
+  private static final class Counter {
+    private int value;
+
+    private Counter(final int value) {
+      this.value = value;
+    }
+
+    private int add(final int amount) {
+      return this.value += amount;
+    }
+  }
+
+  @Test
+  void testWarmUp() throws NoSuchMethodException {
+    final ReflectionProxyMetrics metrics = ReflectionProxyMetrics.create(1);
+    final ReflectionProxyFactory factory = this.factory().withMetrics(metrics);
+    final WarmUpProxy proxy = factory.reflectionProxy(WarmUpProxy.class);
+    // every path, i.e. spread, exact, leading and default, is checked against its linked handle
+    ReflectionProxyFactory.warmUp(proxy, Runnable::run).join();
+    final List<Throwable> failures = new ArrayList<>();
+    final ReflectionProxyBinder<BoundWarmUpProxy> binder = factory.withWarmUp(Runnable::run, (type, failure) -> failures.add(failure))
+      .reflectionProxyBinder(BoundWarmUpProxy.class);
+    assertEquals(Collections.emptyList(), failures);
+    // neither proxied members nor the proxied class's initializer ran, and no calls were recorded
+    assertFalse(warmUpTargetInitialized);
+    assertEquals(0, metrics.methods().values().stream().mapToLong(ReflectionProxyMetrics.MethodMetrics::invocationCount).sum());
+    assertEquals(0, WarmUpTarget.calls);
+
+    final WarmUpTarget target = new WarmUpTarget();
+    assertEquals(1, proxy.call(target, 1, 2L, "three", 4.0D));
+    assertEquals(2, binder.bind(target).call(1, 2L, "three", 4.0D));
+    assertEquals(2, WarmUpTarget.calls);
+    final Method call = WarmUpProxy.class.getMethod("call", Object.class, int.class, long.class, String.class, double.class);
+    assertEquals(1, metrics.method(call).invocationCount());
+    assertThrows(IllegalArgumentException.class, () -> ReflectionProxyFactory.warmUp(target, Runnable::run));
+  }
+
+  @Proxies(WarmUpTarget.class)
+  interface WarmUpProxy {
+    int call(Object instance, int a, long b, String c, double d);
+
+    @Static
+    void reset();
+
+    @FieldGetter("flag")
+    boolean flag(Object instance);
+
+    @FieldSetter("flag")
+    void flag(Object instance, boolean flag);
+
+    default int callTwice(final Object instance) {
+      this.call(instance, 0, 0, null, 0);
+      return this.call(instance, 0, 0, null, 0);
+    }
+  }
+
+  @Proxies(WarmUpTarget.class)
+  interface BoundWarmUpProxy {
+    int call(int a, long b, String c, double d);
+
+    @FieldGetter("flag")
+    boolean flag();
+
+    default void callDefault(final char c) {
+      this.call(c, 0, null, 0);
+    }
+  }
+
+  private static final class WarmUpTarget {
+    private static int calls;
+
+    static {
+      warmUpTargetInitialized = true;
+    }
+
+    private boolean flag;
+
+    private int call(final int a, final long b, final String c, final double d) {
+      return ++calls;
+    }
+
+    private static void reset() {
+      calls = 0;
+    }
+  }
+
+  @Test
+  void testMethodHandle() throws Throwable {
+    final ReflectionProxyFactory factory = this.factory();
+    final MethodHandle toCharArray = factory.methodHandle(StringProxy.class, "toCharArray", String.class);
+    assertArrayEquals("abc".toCharArray(), (char[]) toCharArray.invokeExact("abc"));
+
+    final MethodHandle getSecret = factory.methodHandle(PrivateClassProxy.class, "getSecret", Object.class);
+    final MethodHandle staticMethod = factory.methodHandle(PrivateClassProxy.class, "staticMethod");
+    final Object instance = factory.reflectionProxy(PrivateClassProxy.class).construct("hidden");
+    assertEquals("hidden", (String) getSecret.invokeExact(instance));
+    assertEquals(100, (int) staticMethod.invokeExact());
+
+    assertThrows(IllegalArgumentException.class, () -> factory.methodHandle(StringProxy.class, "concat", String.class, String.class, String.class));
+    assertThrows(IllegalArgumentException.class, () -> factory.methodHandle(StringProxy.class, "missing"));
+
+    // each interface is resolved once for all of its handles, plus once for the proxy
+    assertEquals(3, factory.stats().proxyCount());
+  }
+
+  @Test
+  void testMemberHandlesAreShared() {
+    final ReflectionProxyFactory factory = this.factory();
+    final MethodHandle staticMethod = factory.methodHandle(PrivateClassProxy.class, "staticMethod");
+    assertSame(staticMethod, this.factory().methodHandle(PrivateClassProxy.class, "staticMethod"));
+    assertSame(staticMethod, factory.methodHandle(PrivateClassStaticsProxy.class, "staticMethod"));
+
+    final MethodHandle getStaticField = factory.methodHandle(PrivateClassProxy.class, "getStaticField");
+    final MethodHandle setStaticField = factory.methodHandle(PrivateClassProxy.class, "setStaticField", String.class);
+    assertSame(getStaticField, this.factory().methodHandle(PrivateClassProxy.class, "getStaticField"));
+    assertNotSame(getStaticField, setStaticField);
   }
 
   @Test
@@ -104,6 +483,10 @@ class ReflectionProxyTest {
       @Type(AnotherPrivateClassProxy.class) Object anotherPrivateClass
     );
 
+    @MethodName("useSecretClass")
+    @Descriptor("(Lxyz/jpenilla/reflectionremapper/ReflectionProxyTest$AnotherPrivateClass;)Ljava/lang/String;")
+    String useSecretClass1(Object instance, Object anotherPrivateClass);
+
     @FieldGetter("secret")
     String getSecret(Object instance);
 
@@ -127,11 +510,41 @@ class ReflectionProxyTest {
     @ConstructorInvoker
     Object construct(String secret);
 
+    @ConstructorInvoker
+    @Descriptor("(Ljava/lang/String;)V")
+    Object constructFromDescriptor(Object secret);
+
     default Supplier<String> get(final Supplier<String> s, final int number) {
       return () -> s.get() + number; // will create a synthetic method
     }
   }
 
+  @Proxies(className = "xyz.jpenilla.reflectionremapper.ReflectionProxyTest$PrivateClass")
+  interface BoundPrivateClassProxy {
+    String secret();
+
+    String useSecretClass(@Type(AnotherPrivateClassProxy.class) Object anotherPrivateClass);
+
+    @FieldGetter("secret")
+    String getSecret();
+
+    @FieldSetter("secret")
+    void setSecret(String value);
+
+    @Static
+    int staticMethod();
+
+    default String exclaim() {
+      return this.getSecret() + "!";
+    }
+  }
+
+  @Proxies(className = "xyz.jpenilla.reflectionremapper.ReflectionProxyTest$PrivateClass")
+  interface PrivateClassStaticsProxy {
+    @Static
+    int staticMethod();
+  }
+
   private static final class PrivateClass {
     private static String static_field;
     private final String secret;
@@ -0,0 +1,205 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import com.volkhart.memory.MemoryMeasurer;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.TestAbortedException;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactory;
+import xyz.jpenilla.reflectionremapper.proxy.ReflectionProxyFactoryStats;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.ConstructorInvoker;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldGetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.FieldSetter;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Proxies;
+import xyz.jpenilla.reflectionremapper.proxy.annotation.Static;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the retained size of each structure of a remapper, and of proxy handlers, with
+ * MemoryMeasurer, and checks it against per-entry budgets.
+ *
+ * <p>Remapper figures are measured on {@link SyntheticMappings}, so they do not depend on the
+ * mappings under test. Each structure is measured without the objects of the structures measured
+ * before it, so shared strings are counted once. Tests are skipped when the MemoryMeasurer agent is
+ * not available, i.e. on Java 8.</p>
+ */
+class RetainedMemoryBudgetTest {
+  private static final int CLASSES = 5_000;
+  // budgets are about 15% above the sizes measured on Java 17
+  private static final int PROXY_BYTES_PER_MEMBER = 416;
+  private static final int BOUND_PROXY_BYTES_PER_MEMBER = 512;
+
+  @Test
+  void testRemapperBudget() {
+    final SyntheticMappings synthetic = SyntheticMappings.create().classes(CLASSES);
+    final ReflectionRemapperImpl remapper = (ReflectionRemapperImpl) ReflectionRemapper.forMappings(
+      new ByteArrayInputStream(synthetic.toByteArray()),
+      MappingNamespace.MOJANG_PLUS_YARN,
+      MappingNamespace.SPIGOT
+    );
+
+    final Set<String> keys = Collections.newSetFromMap(new IdentityHashMap<>());
+    final Set<String> pooled = Collections.newSetFromMap(new IdentityHashMap<>());
+    final List<Object> fieldMaps = new ArrayList<>();
+    final List<Object> methodMaps = new ArrayList<>();
+    for (final ReflectionRemapperImpl.ClassMapping mapping : remapper.classMappings()) {
+      fieldMaps.add(mapping.fieldsDeobfToObf());
+      methodMaps.add(mapping.methods());
+      keys.addAll(mapping.methods().keySet());
+      pooled.add(mapping.obfName());
+      pooled.add(mapping.deobfName());
+      pooled.addAll(mapping.fieldsDeobfToObf().keySet());
+      pooled.addAll(mapping.fieldsDeobfToObf().values());
+      pooled.addAll(mapping.methods().values());
+    }
+    pooled.removeAll(keys);
+
+    final Measurement measurement = new Measurement();
+    final long pooledStrings = measurement.addAll(pooled);
+    final long keyStrings = measurement.addAll(keys);
+    final long fieldMapBytes = measurement.addAll(fieldMaps);
+    final long methodMapBytes = measurement.addAll(methodMaps);
+    final long classIndexes = measurement.add(remapper); // both class maps and the class mappings
+
+    final int names = synthetic.classes() + synthetic.fields() + synthetic.methods();
+    assertBudget("pooled strings", pooledStrings, names, 14);
+    assertBudget("key strings", keyStrings, synthetic.methods(), 60);
+    assertBudget("field maps", fieldMapBytes, synthetic.fields(), 104);
+    assertBudget("method maps", methodMapBytes, synthetic.methods(), 72);
+    assertBudget("class indexes", classIndexes, synthetic.classes(), 124);
+    System.out.println("total: " + measurement.total() + " B, estimated " + remapper.stats().estimatedRetainedBytes() + " B");
+  }
+
+  @Test
+  void testProxyHandlerBudget() {
+    // the second handler of each interface is measured, without the member handles and JDK caches it shares with the first
+    final ReflectionProxyFactory factory = ReflectionProxyFactory.create(ReflectionRemapper.noop(), this.getClass().getClassLoader());
+    final Measurement measurement = new Measurement();
+    measurement.add(Proxy.getInvocationHandler(factory.reflectionProxy(TargetProxy.class)));
+    final long members = members(factory.stats());
+    final long handler = measurement.add(Proxy.getInvocationHandler(factory.reflectionProxy(TargetProxy.class)));
+    assertBudget("proxy handler", handler, members, PROXY_BYTES_PER_MEMBER);
+
+    final Target receiver = new Target("value");
+    measurement.add(Proxy.getInvocationHandler(factory.reflectionProxyBinder(BoundTargetProxy.class).bind(receiver)));
+    final long boundMembers = members(factory.stats()) - 2 * members;
+    final long boundHandler = measurement.add(Proxy.getInvocationHandler(factory.reflectionProxyBinder(BoundTargetProxy.class).bind(receiver)));
+    assertBudget("bound proxy handler", boundHandler, boundMembers, BOUND_PROXY_BYTES_PER_MEMBER);
+  }
+
+  private static long members(final ReflectionProxyFactoryStats stats) {
+    return stats.methodCount() + stats.fieldAccessorCount();
+  }
+
+  private static void assertBudget(final String structure, final long bytes, final long entries, final long budgetBytesPerEntry) {
+    final double perEntry = (double) bytes / entries;
+    System.out.printf("%s: %d B, %.1f B/entry (budget %d B)%n", structure, bytes, perEntry, budgetBytesPerEntry);
+    assertTrue(perEntry <= budgetBytesPerEntry, () -> structure + " retains " + perEntry + " bytes per entry, budget is " + budgetBytesPerEntry);
+  }
+
+  private static long measure(final Object root) {
+    try {
+      return MemoryMeasurer.measureBytes(root);
+    } catch (final UnsupportedClassVersionError | IllegalStateException ex) {
+      throw new TestAbortedException("MemoryMeasurer does not work on this JDK", ex);
+    }
+  }
+
+  /**
+   * Measures structures one after another, each without the objects reachable from those before it.
+   */
+  private static final class Measurement {
+    private final Object[] roots = new Object[8];
+    private int count;
+    private long total = measure(this.roots);
+
+    long add(final Object root) {
+      this.roots[this.count++] = root;
+      final long before = this.total;
+      this.total = measure(this.roots);
+      return this.total - before;
+    }
+
+    // without the array holding the objects
+    long addAll(final Collection<?> objects) {
+      final Object[] array = objects.toArray();
+      return this.add(array) - measure(new Object[array.length]);
+    }
+
+    long total() {
+      return this.total - measure(new Object[this.roots.length]);
+    }
+  }
+
+  @Proxies(Target.class)
+  interface TargetProxy {
+    String value(Object instance);
+
+    @FieldGetter("value")
+    String getValue(Object instance);
+
+    @FieldSetter("value")
+    void setValue(Object instance, String value);
+
+    @Static
+    String staticValue();
+
+    @ConstructorInvoker
+    Object construct(String value);
+
+    default String describe(final Object instance) {
+      return this.value(instance);
+    }
+  }
+
+  @Proxies(Target.class)
+  interface BoundTargetProxy {
+    String value();
+
+    @FieldGetter("value")
+    String getValue();
+
+    @Static
+    String staticValue();
+  }
+
+  private static final class Target {
+    private String value;
+
+    private Target(final String value) {
+      this.value = value;
+    }
+
+    private String value() {
+      return this.value;
+    }
+
+    private static String staticValue() {
+      return "static";
+    }
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates tiny v2 mappings of a configurable size, for measuring how loading scales.
+ *
+ * <p>The first two namespaces are {@link MappingNamespace#MOJANG_PLUS_YARN} and {@link MappingNamespace#SPIGOT},
+ * so generated files can be read with {@link ReflectionRemapper#forPaperReobfMappings(Path)}. Further
+ * namespaces are named {@code ns2}, {@code ns3} and so on. Method descriptors reference other
+ * generated classes, so descriptor remapping is exercised as well. With {@link #metadata(boolean)},
+ * comment, parameter and local variable lines are written too, which the remapper must skip.
+ * Output is deterministic for a given configuration.</p>
+ */
+final class SyntheticMappings {
+  private static final String PACKAGE = "net/minecraft/synthetic/";
+  private static final int PACKAGES = 64;
+  private static final String[] PRIMITIVES = {"I", "J", "Z", "D", "F"};
+
+  private int classes = 10_000;
+  private int fieldsPerClass = 4;
+  private int methodsPerClass = 8;
+  private int namespaces = 2;
+  private boolean metadata = false;
+  private long seed = 0;
+
+  private SyntheticMappings() {
+  }
+
+  static SyntheticMappings create() {
+    return new SyntheticMappings();
+  }
+
+  SyntheticMappings classes(final int classes) {
+    this.classes = classes;
+    return this;
+  }
+
+  SyntheticMappings fieldsPerClass(final int fieldsPerClass) {
+    this.fieldsPerClass = fieldsPerClass;
+    return this;
+  }
+
+  SyntheticMappings methodsPerClass(final int methodsPerClass) {
+    this.methodsPerClass = methodsPerClass;
+    return this;
+  }
+
+  SyntheticMappings namespaces(final int namespaces) {
+    if (namespaces < 2) {
+      throw new IllegalArgumentException("At least two namespaces are required, got " + namespaces);
+    }
+    this.namespaces = namespaces;
+    return this;
+  }
+
+  SyntheticMappings metadata(final boolean metadata) {
+    this.metadata = metadata;
+    return this;
+  }
+
+  SyntheticMappings seed(final long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  int classes() {
+    return this.classes;
+  }
+
+  int fields() {
+    return this.classes * this.fieldsPerClass;
+  }
+
+  int methods() {
+    return this.classes * this.methodsPerClass;
+  }
+
+  List<String> namespaceNames() {
+    final List<String> names = new ArrayList<>();
+    names.add(MappingNamespace.MOJANG_PLUS_YARN);
+    names.add(MappingNamespace.SPIGOT);
+    for (int i = 2; i < this.namespaces; i++) {
+      names.add("ns" + i);
+    }
+    return names;
+  }
+
+  /**
+   * Returns the binary name of the generated class with the given index in the given namespace.
+   *
+   * @param index     class index
+   * @param namespace namespace index
+   * @return class name, using '.' as the package separator
+   */
+  static String className(final int index, final int namespace) {
+    return internalName(index, namespace).replace('/', '.');
+  }
+
+  void write(final Path file) throws IOException {
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+      this.write(writer);
+    }
+  }
+
+  byte[] toByteArray() {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16)) {
+      this.write(writer);
+    } catch (final IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+
+  private void write(final Writer writer) throws IOException {
+    final Random random = new Random(this.seed);
+    writer.write("tiny\t2\t0");
+    for (final String namespace : this.namespaceNames()) {
+      writer.write('\t');
+      writer.write(namespace);
+    }
+    writer.write('\n');
+
+    for (int cls = 0; cls < this.classes; cls++) {
+      writer.write('c');
+      for (int ns = 0; ns < this.namespaces; ns++) {
+        writer.write('\t');
+        writer.write(internalName(cls, ns));
+      }
+      writer.write('\n');
+      if (this.metadata) {
+        writer.write("\tc\tClass comment " + cls + '\n');
+      }
+
+      for (int field = 0; field < this.fieldsPerClass; field++) {
+        writer.write("\tf\t");
+        writer.write(this.type(random));
+        this.writeMemberNames(writer, "field", field);
+        if (this.metadata) {
+          writer.write("\t\tc\tField comment " + field + '\n');
+        }
+      }
+      for (int method = 0; method < this.methodsPerClass; method++) {
+        writer.write("\tm\t(");
+        final int parameters = random.nextInt(4);
+        for (int i = 0; i < parameters; i++) {
+          writer.write(this.type(random));
+        }
+        writer.write(')');
+        writer.write(random.nextInt(4) == 0 ? "V" : this.type(random));
+        this.writeMemberNames(writer, "method", method);
+        if (this.metadata) {
+          this.writeMethodMetadata(writer, method, parameters);
+        }
+      }
+    }
+  }
+
+  private void writeMemberNames(final Writer writer, final String kind, final int index) throws IOException {
+    for (int ns = 0; ns < this.namespaces; ns++) {
+      writer.write('\t');
+      writer.write(ns == 0 ? kind + index : obfuscatedName(index, ns));
+    }
+    writer.write('\n');
+  }
+
+  private void writeMethodMetadata(final Writer writer, final int method, final int parameters) throws IOException {
+    writer.write("\t\tc\tMethod comment " + method + '\n');
+    for (int i = 0; i < parameters; i++) {
+      writer.write("\t\tp\t" + (i + 1));
+      // parameter names are often missing outside the first namespace
+      for (int ns = 0; ns < this.namespaces; ns++) {
+        writer.write('\t');
+        writer.write(ns == 0 ? "param" + i : "");
+      }
+      writer.write("\n\t\t\tc\tParameter comment " + i + '\n');
+    }
+    writer.write("\t\tv\t" + (parameters + 1) + "\t4\t-1");
+    for (int ns = 0; ns < this.namespaces; ns++) {
+      writer.write('\t');
+      writer.write(ns == 0 ? "local" : "l" + ns);
+    }
+    writer.write('\n');
+  }
+
+  private String type(final Random random) {
+    if (random.nextBoolean()) {
+      return PRIMITIVES[random.nextInt(PRIMITIVES.length)];
+    }
+    return 'L' + internalName(random.nextInt(this.classes), 0) + ';';
+  }
+
+  private static String internalName(final int index, final int namespace) {
+    final String pkg = PACKAGE + "p" + index % PACKAGES + '/';
+    return namespace == 0 ? pkg + "Class" + index : pkg + obfuscatedName(index, namespace);
+  }
+
+  private static String obfuscatedName(final int index, final int namespace) {
+    final StringBuilder name = new StringBuilder();
+    int remaining = index;
+    do {
+      name.append((char) ('a' + remaining % 26));
+      remaining /= 26;
+    } while (remaining > 0);
+    return namespace == 1 ? name.toString() : name.append('_').append(namespace).toString();
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * reflection-remapper
+ *
+ * Copyright (c) 2021-2024 Jason Penilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package xyz.jpenilla.reflectionremapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TextDeobfuscatorTest {
+  // 4 fields and 8 methods per class, obfuscated as a..d and a..h, so only e..h are unambiguous
+  private static final MultiNamespaceMappings MAPPINGS = MultiNamespaceMappings.load(
+    new ByteArrayInputStream(SyntheticMappings.create().classes(100).toByteArray())
+  );
+
+  private static final String OBFUSCATED = String.join("\n",
+    "[12:00:00 ERROR]: Could not pass event to " + obf(7) + "@1a2b3c",
+    "java.lang.IllegalStateException: " + obf(30) + " is not ticking",
+    "\tat " + obf(30) + ".e(SourceFile:42) ~[server.jar:?]",
+    "\tat " + obf(30) + ".a(SourceFile:17) ~[server.jar:?]",
+    "\tat " + obf(31) + "$1.run(SourceFile:5)",
+    "\tat " + obf(31) + ".lambda$f$0(SourceFile:9)",
+    "\tat " + obf(31) + ".lambda$a$1(SourceFile:10)",
+    "\tat " + obf(32) + ".access$g(SourceFile:3)",
+    "\tat java.lang.Thread.run(Thread.java:1583)",
+    "descriptor (L" + obf(30).replace('.', '/') + ";I)V, internal " + obf(99).replace('.', '/') + ".h",
+    "trailing " + obf(7) + "."
+  );
+
+  private static final String DEOBFUSCATED = String.join("\n",
+    "[12:00:00 ERROR]: Could not pass event to " + named(7) + "@1a2b3c",
+    "java.lang.IllegalStateException: " + named(30) + " is not ticking",
+    "\tat " + named(30) + ".method4(SourceFile:42) ~[server.jar:?]",
+    "\tat " + named(30) + ".a(SourceFile:17) ~[server.jar:?]",
+    "\tat " + named(31) + "$1.run(SourceFile:5)",
+    "\tat " + named(31) + ".lambda$method5$0(SourceFile:9)",
+    "\tat " + named(31) + ".lambda$a$1(SourceFile:10)",
+    "\tat " + named(32) + ".access$method6(SourceFile:3)",
+    "\tat java.lang.Thread.run(Thread.java:1583)",
+    "descriptor (L" + named(30).replace('.', '/') + ";I)V, internal " + named(99).replace('.', '/') + ".method7",
+    "trailing " + named(7) + "."
+  );
+
+  @Test
+  void testDeobfuscate() {
+    final TextDeobfuscator deobfuscator = MAPPINGS.deobfuscator(MappingNamespace.SPIGOT, MappingNamespace.MOJANG_PLUS_YARN);
+    assertEquals(DEOBFUSCATED, deobfuscator.deobfuscate(OBFUSCATED));
+    assertEquals("", deobfuscator.deobfuscate(""));
+    assertEquals("no names here, 1.2.3", deobfuscator.deobfuscate("no names here, 1.2.3"));
+
+    // reverse direction
+    final TextDeobfuscator reverse = MAPPINGS.deobfuscator(MappingNamespace.MOJANG_PLUS_YARN, MappingNamespace.SPIGOT);
+    assertEquals(obf(30) + ".e", reverse.deobfuscate(named(30) + ".method4"));
+
+    assertThrows(IllegalArgumentException.class, () -> MAPPINGS.deobfuscator("unknown", MappingNamespace.SPIGOT));
+  }
+
+  @Test
+  void testDeobfuscateStreaming() throws IOException {
+    final TextDeobfuscator deobfuscator = MAPPINGS.deobfuscator(MappingNamespace.SPIGOT, MappingNamespace.MOJANG_PLUS_YARN);
+
+    final StringWriter copied = new StringWriter();
+    deobfuscator.deobfuscate(new StringReader(OBFUSCATED), copied);
+    assertEquals(DEOBFUSCATED, copied.toString());
+
+    // names split across writes
+    for (final int chunk : new int[]{1, 3, 7, 64}) {
+      final StringWriter result = new StringWriter();
+      try (Writer writer = deobfuscator.deobfuscating(result)) {
+        for (int i = 0; i < OBFUSCATED.length(); i += chunk) {
+          writer.write(OBFUSCATED, i, Math.min(chunk, OBFUSCATED.length() - i));
+          writer.flush();
+        }
+      }
+      assertEquals(DEOBFUSCATED, result.toString(), "chunk size " + chunk);
+    }
+  }
+
+  private static String obf(final int index) {
+    return SyntheticMappings.className(index, 1);
+  }
+
+  private static String named(final int index) {
+    return SyntheticMappings.className(index, 0);
+  }
+}